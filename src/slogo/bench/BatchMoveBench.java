@@ -0,0 +1,69 @@
+package slogo.bench;
+
+import java.util.List;
+import slogo.model.Turtle;
+import slogo.model.TurtleStore;
+import slogo.model.TurtleTable;
+
+/**
+ * Compares moving and turning many turtles one Turtle at a time with TurtleStore.moveAll and
+ * turnAll over the same rows, in ns per turtle for one move plus one turn. Turtles start either
+ * all facing the same way, where the batch works out the sine and cosine once, or each facing a
+ * different way. The best of several rounds is reported.
+ *
+ * Usage: java -cp target/classes slogo.bench.BatchMoveBench
+ */
+public class BatchMoveBench {
+  private static final int ARENA_SIZE = 500;
+  private static final int[] COUNTS = {1_000, 10_000, 100_000, 1_000_000};
+  private static final int TURTLE_STEPS = 20_000_000;
+  private static final int ROUNDS = 5;
+  private static final double DISTANCE = 1;
+  private static final double DEGREES = 1;
+  private static final double HEADING_STEP = 7;
+
+  public static void main(String[] args){
+    System.out.printf("%10s  %-28s %-28s%n", "turtles", "same heading (object/batch)", "distinct headings");
+    for(int count : COUNTS){
+      System.out.printf("%,10d  %-28s %-28s%n", count, compare(count, false), compare(count, true));
+    }
+  }
+
+  private static String compare(int count, boolean distinct){
+    TurtleTable table = new TurtleTable();
+    for(int k = 0; k < count; k++){
+      Turtle turtle = new Turtle((double) k + 1, ARENA_SIZE, ARENA_SIZE);
+      if(distinct){
+        turtle.setHeading((k * HEADING_STEP) % 360);
+      }
+      table.add(turtle);
+    }
+    TurtleStore store = table.getStore();
+    store.setBounds(ARENA_SIZE, ARENA_SIZE);
+    List<Turtle> turtles = table.getTurtles();
+    int[] rows = new int[count];
+    for(int k = 0; k < count; k++){
+      rows[k] = k;
+    }
+    int repeats = Math.max(1, TURTLE_STEPS / count);
+    double objectBest = Double.MAX_VALUE;
+    double batchBest = Double.MAX_VALUE;
+    for(int round = 0; round < ROUNDS; round++){
+      long start = System.nanoTime();
+      for(int r = 0; r < repeats; r++){
+        for(Turtle turtle : turtles){
+          turtle.move(DISTANCE);
+          turtle.turn(DEGREES);
+        }
+      }
+      objectBest = Math.min(objectBest, (double) (System.nanoTime() - start) / repeats / count);
+      start = System.nanoTime();
+      for(int r = 0; r < repeats; r++){
+        store.moveAll(rows, DISTANCE);
+        store.turnAll(rows, DEGREES);
+      }
+      batchBest = Math.min(batchBest, (double) (System.nanoTime() - start) / repeats / count);
+    }
+    return String.format("%5.1f / %5.1f", objectBest, batchBest);
+  }
+}
@@ -0,0 +1,87 @@
+package slogo.bench;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import slogo.controller.Controller;
+
+/**
+ * Helpers shared by the benchmarks and checks in this package. They are run by hand, after
+ * mvn -P headless,bench compile, with java -cp target/classes slogo.bench.SomeCheck
+ */
+final class Bench {
+  static final String CHILD = "child";
+  static final String LANGUAGE = "English";
+  static final String TURTLE_NAME = "turtle";
+  static final double TOLERANCE = 1e-6;
+  private static final int FAILED = 1;
+  private static final double FULL_TURN = 360;
+
+  private Bench(){
+  }
+
+  /**
+   * @param args the arguments a check was started with
+   * @return true if this is the JVM a check started for itself with a bounded heap
+   */
+  static boolean isChild(String[] args){
+    return args.length > 0 && args[0].equals(CHILD);
+  }
+
+  /**
+   * Runs a check's main class again in a new JVM with a bounded heap, passing CHILD first, and
+   * exits with its status if it failed
+   * @param main the check
+   * @param maxHeap the -Xmx value, such as "16m"
+   * @param args what to pass after CHILD
+   */
+  static void runInHeap(Class<?> main, String maxHeap, String... args) throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>(Arrays.asList(
+        Paths.get(System.getProperty("java.home"), "bin", "java").toString(), "-Xmx" + maxHeap,
+        "-cp", System.getProperty("java.class.path"), main.getName(), CHILD));
+    command.addAll(Arrays.asList(args));
+    int status = new ProcessBuilder(command).inheritIO().start().waitFor();
+    if(status != 0){
+      System.out.println(main.getSimpleName() + " failed with -Xmx" + maxHeap);
+      System.exit(status);
+    }
+  }
+
+  /**
+   * @return a controller with one turtle at home, reporting to the given view
+   */
+  static Controller newController(QuietView view){
+    Controller controller = new Controller(view, LANGUAGE);
+    view.showTurtle(TURTLE_NAME);
+    controller.addTurtle(TURTLE_NAME, 0, 0, 0);
+    return controller;
+  }
+
+  /**
+   * Stops with a failure unless the view's turtle ended where the expected one did, with headings
+   * compared modulo a full turn
+   */
+  static void checkSameState(String what, QuietView actual, QuietView expected){
+    double turn = Math.abs(actual.getHeading() - expected.getHeading()) % FULL_TURN;
+    boolean same = Math.abs(actual.getX() - expected.getX()) < TOLERANCE
+        && Math.abs(actual.getY() - expected.getY()) < TOLERANCE
+        && Math.min(turn, FULL_TURN - turn) < TOLERANCE;
+    System.out.printf("%s: x %.6f y %.6f heading %.1f, expected x %.6f y %.6f heading %.1f%n", what,
+        actual.getX(), actual.getY(), actual.getHeading(), expected.getX(), expected.getY(), expected.getHeading());
+    if(!same){
+      System.out.println(what + ": wrong final state");
+      System.exit(FAILED);
+    }
+  }
+
+  /**
+   * @return bytes the current thread has allocated so far
+   */
+  static long allocatedBytes(){
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+}
@@ -0,0 +1,109 @@
+package slogo.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.ResourceBundle;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import slogo.model.Lexer;
+
+/**
+ * Compares the Lexer with the tokenizer it replaced, which split the text on whitespace and tried
+ * each Syntax.properties pattern against every piece in turn. The workload is every .logo file
+ * under a directory, repeated to about a megabyte; the best of several rounds is reported.
+ *
+ * Usage: java -cp target/classes slogo.bench.LexerBench [directory]
+ */
+public class LexerBench {
+  private static final String EXAMPLES = "data/examples";
+  private static final String SYNTAX = "resources.languages.Syntax";
+  private static final String WHITESPACE = "\\s+";
+  private static final int TARGET_CHARS = 1 << 20;
+  private static final int ROUNDS = 20;
+  private static final double NANOS_PER_MILLI = 1e6;
+  private static final double NANOS_PER_SECOND = 1e9;
+  private static final double MILLION = 1e6;
+
+  public static void main(String[] args) throws IOException {
+    String text = workload(Paths.get(args.length > 0 ? args[0] : EXAMPLES));
+    List<Entry<String, Pattern>> patterns = syntaxPatterns();
+    System.out.printf("%,d characters%n", text.length());
+    long regexBest = Long.MAX_VALUE;
+    long lexerBest = Long.MAX_VALUE;
+    int regexTokens = 0;
+    int lexerTokens = 0;
+    for(int round = 0; round < ROUNDS; round++){
+      long start = System.nanoTime();
+      regexTokens = splitAndMatch(text, patterns);
+      regexBest = Math.min(regexBest, System.nanoTime() - start);
+      start = System.nanoTime();
+      lexerTokens = lex(text);
+      lexerBest = Math.min(lexerBest, System.nanoTime() - start);
+    }
+    report("split + regex", regexTokens, regexBest);
+    report("Lexer", lexerTokens, lexerBest);
+  }
+
+  private static String workload(Path directory) throws IOException {
+    String examples;
+    try(Stream<Path> files = Files.walk(directory)){
+      List<Path> programs = files.filter(file -> file.toString().endsWith(".logo")).sorted().collect(Collectors.toList());
+      StringBuilder all = new StringBuilder();
+      for(Path program : programs){
+        all.append(new String(Files.readAllBytes(program))).append('\n');
+      }
+      examples = all.toString();
+    }
+    StringBuilder text = new StringBuilder();
+    while(text.length() < TARGET_CHARS){
+      text.append(examples);
+    }
+    return text.toString();
+  }
+
+  private static List<Entry<String, Pattern>> syntaxPatterns(){
+    ResourceBundle resources = ResourceBundle.getBundle(SYNTAX);
+    List<Entry<String, Pattern>> patterns = new ArrayList<>();
+    for(String key : Collections.list(resources.getKeys())){
+      patterns.add(new SimpleEntry<>(key, Pattern.compile(resources.getString(key), Pattern.CASE_INSENSITIVE)));
+    }
+    return patterns;
+  }
+
+  private static int splitAndMatch(String text, List<Entry<String, Pattern>> patterns){
+    int tokens = 0;
+    for(String piece : text.split(WHITESPACE)){
+      if(piece.trim().length() > 0){
+        for(Entry<String, Pattern> entry : patterns){
+          if(entry.getValue().matcher(piece).matches()){
+            break;
+          }
+        }
+        tokens++;
+      }
+    }
+    return tokens;
+  }
+
+  private static int lex(String text){
+    Lexer lexer = new Lexer(text);
+    int tokens = 0;
+    while(lexer.next() != null){
+      tokens++;
+    }
+    return tokens;
+  }
+
+  private static void report(String tokenizer, int tokens, long nanos){
+    System.out.printf("%-14s %,9d tokens in %6.1f ms  (%5.1f M tokens/s)%n", tokenizer, tokens,
+        nanos / NANOS_PER_MILLI, tokens / (nanos / NANOS_PER_SECOND) / MILLION);
+  }
+}
@@ -0,0 +1,38 @@
+package slogo.bench;
+
+import slogo.controller.Controller;
+
+/**
+ * Checks that a loop of ten million iterations runs in a 16 MB heap and leaves the turtle where
+ * the same loop cut down to one remainder of full circles does. Loops once built every iteration's
+ * commands before running any, which ran out of memory long before this.
+ *
+ * Usage: java -cp target/classes slogo.bench.LoopHeapCheck
+ */
+public class LoopHeapCheck {
+  private static final String MAX_HEAP = "16m";
+  private static final int ITERATIONS = 10_000_000;
+  private static final int SAME_TURN = ITERATIONS % 360;
+  private static final String[] LOOPS = {
+      "repeat %d [ fd 1 rt 1 ]",
+      "dotimes [ :i %d ] [ fd 1 rt 1 ]"
+  };
+
+  public static void main(String[] args) throws Exception {
+    if(!Bench.isChild(args)){
+      Bench.runInHeap(LoopHeapCheck.class, MAX_HEAP);
+      System.out.println("LoopHeapCheck passed with -Xmx" + MAX_HEAP);
+      return;
+    }
+    for(String loop : LOOPS){
+      QuietView expected = new QuietView();
+      Bench.newController(expected).sendCommands(String.format(loop, SAME_TURN));
+      QuietView actual = new QuietView();
+      Controller controller = Bench.newController(actual);
+      long start = System.nanoTime();
+      controller.sendCommands(String.format(loop, ITERATIONS));
+      long millis = (System.nanoTime() - start) / 1_000_000;
+      Bench.checkSameState(String.format(loop, ITERATIONS) + " in " + millis + " ms", actual, expected);
+    }
+  }
+}
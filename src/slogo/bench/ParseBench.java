@@ -0,0 +1,61 @@
+package slogo.bench;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import slogo.model.CommandCreator;
+import slogo.model.CommandFactory;
+import slogo.model.ProcedureTable;
+import slogo.model.VariableTable;
+
+/**
+ * Measures the time and the bytes allocated to parse a program, without the parse cache, for
+ * recursion/tree.logo and for programs of nested "if 1 [ fd 1 ... ]" lists, which stress entering
+ * and leaving lists.
+ *
+ * Usage: java -cp target/classes slogo.bench.ParseBench [tree.logo]
+ */
+public class ParseBench {
+  private static final String TREE = "data/examples/recursion/tree.logo";
+  private static final String INFORMATION_PACKAGE = "resources.information.";
+  private static final int[] DEPTHS = {10, 100};
+  private static final int WARM_UP = 2_000;
+  private static final int PARSES = 2_000;
+  private static final double NANOS_PER_MICRO = 1e3;
+
+  public static void main(String[] args) throws IOException {
+    CommandCreator creator = new CommandCreator(new CommandFactory(INFORMATION_PACKAGE),
+        new VariableTable(), new ProcedureTable(), Bench.LANGUAGE);
+    measure(creator, "tree.logo", new String(Files.readAllBytes(Paths.get(args.length > 0 ? args[0] : TREE))));
+    for(int depth : DEPTHS){
+      measure(creator, "nested if, depth " + depth, nestedIfs(depth));
+    }
+  }
+
+  private static String nestedIfs(int depth){
+    StringBuilder program = new StringBuilder();
+    for(int level = 0; level < depth; level++){
+      program.append("if 1 [ fd 1 ");
+    }
+    for(int level = 0; level < depth; level++){
+      program.append("] ");
+    }
+    return program.toString();
+  }
+
+  private static void measure(CommandCreator creator, String name, String program){
+    for(int k = 0; k < WARM_UP; k++){
+      creator.parseStatements(new StringReader(program), node -> { });
+    }
+    long bytes = Bench.allocatedBytes();
+    long start = System.nanoTime();
+    for(int k = 0; k < PARSES; k++){
+      creator.parseStatements(new StringReader(program), node -> { });
+    }
+    long nanos = System.nanoTime() - start;
+    bytes = Bench.allocatedBytes() - bytes;
+    System.out.printf("%-22s %,9d bytes/parse  %7.1f us/parse%n", name, bytes / PARSES,
+        nanos / NANOS_PER_MICRO / PARSES);
+  }
+}
@@ -0,0 +1,100 @@
+package slogo.bench;
+
+import slogo.view.ViewExternalAPI;
+
+/**
+ * A view that draws nothing and keeps only the last position reported, so a run of millions of
+ * moves can be checked in a small heap.
+ */
+class QuietView implements ViewExternalAPI {
+  private static final int ARENA_SIZE = 500;
+
+  private double x;
+  private double y;
+  private double heading;
+
+  @Override
+  public void update(double newX, double newY, double newAngle){
+    x = newX;
+    y = newY;
+    heading = newAngle;
+  }
+
+  @Override
+  public void updateCommandPenColor(double value){
+  }
+
+  @Override
+  public void updateBackgroundColor(double value){
+  }
+
+  @Override
+  public void updatePenSize(double value){
+  }
+
+  @Override
+  public void updateShape(double value){
+  }
+
+  @Override
+  public void clear(){
+  }
+
+  @Override
+  public void updateTurtleView(double value){
+  }
+
+  @Override
+  public void updatePenStatus(double value){
+  }
+
+  @Override
+  public void updateStatus(){
+  }
+
+  @Override
+  public void addCommand(String commandSyntax, String syntax){
+  }
+
+  @Override
+  public void addVariable(String newVariable, Double newValue){
+  }
+
+  @Override
+  public void setCommandSize(int commands){
+  }
+
+  @Override
+  public void setColorPalette(double id, String hex){
+  }
+
+  @Override
+  public void showTurtle(String name){
+  }
+
+  @Override
+  public void chooseTurtle(String name){
+  }
+
+  @Override
+  public int getArenaWidth(){
+    return ARENA_SIZE;
+  }
+
+  @Override
+  public int getArenaHeight(){
+    return ARENA_SIZE;
+  }
+
+  double getX(){
+    return x;
+  }
+
+  double getY(){
+    return y;
+  }
+
+  double getHeading(){
+    return heading;
+  }
+}
@@ -0,0 +1,38 @@
+package slogo.bench;
+
+import slogo.controller.Controller;
+
+/**
+ * Times recursion of increasing depth through user procedures. "down" recurses as its last
+ * statement, so its calls are tail calls and run in constant space; "up" moves after the call
+ * returns, so every level stays on the work stack until the depth limit or the heap runs out.
+ * Each depth is run in a new controller.
+ *
+ * Usage: java [-Xss256k -Xmx16m] -cp target/classes slogo.bench.RecursionBench
+ */
+public class RecursionBench {
+  private static final String[] PROCEDURES = {
+      "to down [ :n ] [ if greater? :n 0 [ fd 1 down difference :n 1 ] ]",
+      "to up [ :n ] [ if greater? :n 0 [ up difference :n 1 fd 1 ] ]"
+  };
+  private static final String[] CALLS = {"down", "up"};
+  private static final int[] DEPTHS = {1_000, 10_000, 100_000, 1_000_000};
+  private static final double NANOS_PER_MILLI = 1e6;
+
+  public static void main(String[] args){
+    for(int k = 0; k < CALLS.length; k++){
+      for(int depth : DEPTHS){
+        Controller controller = Bench.newController(new QuietView());
+        controller.sendCommands(PROCEDURES[k]);
+        long start = System.nanoTime();
+        try {
+          controller.sendCommands(CALLS[k] + " " + depth);
+          System.out.printf("%-4s %,9d  %6.0f ms%n", CALLS[k], depth, (System.nanoTime() - start) / NANOS_PER_MILLI);
+        } catch (RuntimeException | StackOverflowError | OutOfMemoryError e){
+          System.out.printf("%-4s %,9d  failed: %s%n", CALLS[k], depth, e);
+          break;
+        }
+      }
+    }
+  }
+}
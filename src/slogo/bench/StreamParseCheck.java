@@ -0,0 +1,80 @@
+package slogo.bench;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import slogo.model.CommandCreator;
+import slogo.model.CommandFactory;
+import slogo.model.ProcedureTable;
+import slogo.model.VariableTable;
+
+/**
+ * Checks that a generated program of a million lines, about 24 MB, is parsed a statement at a
+ * time in a 16 MB heap, and that running the file leaves the turtle where the same moves cut down
+ * to one remainder of full circles do.
+ *
+ * Usage: java -cp target/classes slogo.bench.StreamParseCheck
+ */
+public class StreamParseCheck {
+  private static final String MAX_HEAP = "16m";
+  private static final String INFORMATION_PACKAGE = "resources.information.";
+  private static final int LINES = 1_000_000;
+  private static final int STATEMENTS_PER_LINE = 2;
+  private static final int SAME_TURN = LINES % 360;
+  private static final int FAILED = 1;
+  private static final double NANOS_PER_MILLI = 1e6;
+
+  public static void main(String[] args) throws Exception {
+    if(!Bench.isChild(args)){
+      Path program = Files.createTempFile("stream", ".logo");
+      try {
+        write(program);
+        System.out.printf("%,d bytes in %s%n", Files.size(program), program);
+        Bench.runInHeap(StreamParseCheck.class, MAX_HEAP, program.toString());
+      } finally {
+        Files.delete(program);
+      }
+      System.out.println("StreamParseCheck passed with -Xmx" + MAX_HEAP);
+      return;
+    }
+    Path program = Paths.get(args[1]);
+    checkParse(program);
+    checkRun(program);
+  }
+
+  private static void write(Path program) throws IOException {
+    try(BufferedWriter out = Files.newBufferedWriter(program)){
+      for(int line = 0; line < LINES; line++){
+        out.write("fd 1 rt 1 # step " + line);
+        out.newLine();
+      }
+    }
+  }
+
+  private static void checkParse(Path program) throws IOException {
+    CommandCreator creator = new CommandCreator(new CommandFactory(INFORMATION_PACKAGE),
+        new VariableTable(), new ProcedureTable(), Bench.LANGUAGE);
+    long[] statements = new long[1];
+    long start = System.nanoTime();
+    try(BufferedReader in = Files.newBufferedReader(program)){
+      creator.parseStatements(in, node -> statements[0]++);
+    }
+    System.out.printf("parsed %,d statements in %.0f ms%n", statements[0], (System.nanoTime() - start) / NANOS_PER_MILLI);
+    if(statements[0] != (long) LINES * STATEMENTS_PER_LINE){
+      System.out.println("expected " + (long) LINES * STATEMENTS_PER_LINE + " statements");
+      System.exit(FAILED);
+    }
+  }
+
+  private static void checkRun(Path program) throws IOException {
+    QuietView expected = new QuietView();
+    Bench.newController(expected).sendCommands("repeat " + SAME_TURN + " [ fd 1 rt 1 ]");
+    QuietView actual = new QuietView();
+    long start = System.nanoTime();
+    Bench.newController(actual).sendCommands(program);
+    Bench.checkSameState(String.format("ran the file in %.0f ms", (System.nanoTime() - start) / NANOS_PER_MILLI), actual, expected);
+  }
+}
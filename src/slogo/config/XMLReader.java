@@ -6,7 +6,6 @@ import java.nio.file.Files;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Path;
 import javafx.stage.Stage;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -17,8 +16,7 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 import slogo.view.Visualizer;
-import slogo.view.paths.LinePathElement;
-import slogo.view.paths.MoveToElement;
+import slogo.view.paths.SegmentBuffer;
 
 public class XMLReader {
   private static final String TXT_FILEPATH = "data/templates/";
@@ -236,21 +234,21 @@ public class XMLReader {
 
   private void drawPaths() {
     NodeList pathList = myDoc.getElementsByTagName("Path");
+    SegmentBuffer segments = myVisualizer.getSegments();
 
     for(int i = 0; i < pathList.getLength(); i++){
       Node pathNode = pathList.item(i);
 
       if(pathNode.getNodeType() == Node.ELEMENT_NODE){
         Element pathElement = (Element) pathNode;
-        Path path = new Path();
-        path.getElements().add(new MoveToElement(Double.parseDouble(pathElement.getAttribute("x0")), Double.parseDouble(pathElement.getAttribute("y0"))));
-        path.getElements().add(new LinePathElement(Double.parseDouble(pathElement.getAttribute("x1")), Double.parseDouble(pathElement.getAttribute("y1"))));
-        path.setStroke(Color.web(pathElement.getAttribute("color")));
-        path.setStrokeWidth(Double.parseDouble(pathElement.getAttribute("stroke")));
-        path.setOpacity(Double.parseDouble(pathElement.getAttribute("opacity")));
-        myVisualizer.getPaths().add(path);
-        myVisualizer.getTurtlePaths().getChildren().add(path);
+        Color color = Color.web(pathElement.getAttribute("color"));
+        segments.add(Double.parseDouble(pathElement.getAttribute("x0")), Double.parseDouble(pathElement.getAttribute("y0")),
+            Double.parseDouble(pathElement.getAttribute("x1")), Double.parseDouble(pathElement.getAttribute("y1")),
+            SegmentBuffer.packColor(color.getRed(), color.getGreen(), color.getBlue(), color.getOpacity()),
+            Float.parseFloat(pathElement.getAttribute("stroke")), Float.parseFloat(pathElement.getAttribute("opacity")),
+            SegmentBuffer.NO_TURTLE, 0);
       }
     }
+    myVisualizer.repaintSegments();
   }
 }
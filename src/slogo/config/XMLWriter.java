@@ -1,16 +1,10 @@
 package slogo.config;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
-import javafx.scene.paint.Color;
-import javafx.scene.paint.Paint;
-import javafx.scene.shape.Path;
-import javafx.scene.shape.PathElement;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -24,6 +18,7 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import slogo.view.turtles.TurtleView;
 import slogo.view.Visualizer;
+import slogo.view.paths.SegmentBuffer;
 
 public class XMLWriter {
   private Document myDocument;
@@ -148,21 +143,16 @@ public class XMLWriter {
 
   private Node writePaths(){
     Element paths = myDocument.createElement("Paths");
-    List<Path> pathList = new ArrayList<>(myVisualizer.getPaths());
-    for(Path p : pathList){
-      List<String> attributeValues = new ArrayList();
-      for(PathElement pe: p.getElements()){
-        attributeValues.addAll(Arrays.asList(pe.toString().split(" ")));
-      }
-      attributeValues.add(p.getStrokeWidth()+"");
-      Color color = (Color) p.getStroke();
-      String hex = String.format( "#%02X%02X%02X",
-          (int)( color.getRed() * 255 ),
-          (int)( color.getGreen() * 255 ),
-          (int)( color.getBlue() * 255 ) );
-      attributeValues.add(hex);
-      attributeValues.add(p.getOpacity()+"");
-      paths.appendChild(createAttributeNode("Path", new String[]{"x0", "y0", "x1", "y1", "stroke", "color", "opacity"}, attributeValues.toArray(new String[0])));
+    SegmentBuffer segments = myVisualizer.getSegments();
+    String[] attributes = new String[]{"x0", "y0", "x1", "y1", "stroke", "color", "opacity"};
+    for(int row = 0; row < segments.size(); row++){
+      String hex = String.format("#%02X%02X%02X",
+          SegmentBuffer.channelOf(segments.getColor(row), SegmentBuffer.RED),
+          SegmentBuffer.channelOf(segments.getColor(row), SegmentBuffer.GREEN),
+          SegmentBuffer.channelOf(segments.getColor(row), SegmentBuffer.BLUE));
+      paths.appendChild(createAttributeNode("Path", attributes, new String[]{
+          segments.getX0(row)+"", segments.getY0(row)+"", segments.getX1(row)+"", segments.getY1(row)+"",
+          segments.getWidth(row)+"", hex, segments.getOpacity(row)+""}));
     }
     return paths;
   }
@@ -1,9 +1,10 @@
 package slogo.controller;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.List;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.ResourceBundle;
@@ -11,28 +12,30 @@ import java.util.ResourceBundle;
 import slogo.exceptions.*;
 import slogo.model.ModelExternal;
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 import slogo.model.command.*;
-import slogo.view.ViewExternal;
+import slogo.view.ViewExternalAPI;
 import slogo.fun.RomanNumerals;
 
 public class Controller {
 
   private static final String ERROR_PACKAGE = "resources.information.ErrorText";
   private static final Integer SECOND_GEN = 2;
-  private static final int ONE = 1;
+  private static final String HEX_COLOR = "#%06x";
   private static final int ZERO = 0;
   private static final double STARTING_ID = 0;
+  private static final String VARIABLE_PREFIX = ":";
 
   private ModelExternal modelExternal;
-  private Map<String, List<Command>> userCreatedCommandVariables;
-  private Map<String, Double> userCreatedConstantVariables;
   private Map<String, Turtle> nameToTurtle;
   private Map<Turtle, Double> turtleId;
   private Map<String, Integer> nameCount;
   private Turtle turtle;
-  private ViewExternal myView;
+  private ViewExternalAPI myView;
   private double idOfTurtle;
+  private int commandCount;
   private Command currentCommand;
+  private String loadingProcedure;
   private ResourceBundle errorResources;
 
   /**
@@ -43,7 +46,7 @@ public class Controller {
    * @param visualizer the view of the program
    * @param language   the specific language being used (aka english, chinese, etc)
    */
-  public Controller(ViewExternal visualizer, String language) {
+  public Controller(ViewExternalAPI visualizer, String language) {
     modelExternal = new ModelExternal(this, language);
     errorResources = ResourceBundle.getBundle(ERROR_PACKAGE);
     myView = visualizer;
@@ -53,8 +56,6 @@ public class Controller {
   }
 
   private void makeMaps() {
-    userCreatedCommandVariables = new HashMap<>();
-    userCreatedConstantVariables = new HashMap<>();
     nameToTurtle = new HashMap<>();
     nameCount = new HashMap<>();
     turtleId = new HashMap<>();
@@ -66,16 +67,42 @@ public class Controller {
    */
   public void addTurtle() {
     idOfTurtle++;
-    turtle = new Turtle(idOfTurtle, myView.getArenaWidth(), myView.getArenaHeight());
-    if (nameCount.containsKey(turtle.getName())) {
-      Integer generation = nameCount.get(turtle.getName());
-      nameCount.put(turtle.getName(), nameCount.get(turtle.getName()) + 1);
+    turtle = makeTurtle(idOfTurtle);
+    modelExternal.setTurtle(turtle);
+  }
+
+  /**
+   * Called by the model when a program picks a turtle that doesn't exist yet, such as with
+   * "tell [ 5 ]": makes the turtle and has the view show it, without making it current. The
+   * turtle is named by its id, and found through the model rather than kept here, so a program
+   * can make a great many turtles cheaply.
+   *
+   * @param id the id the program gave the turtle
+   * @return the new turtle
+   */
+  public Turtle addTurtle(double id) {
+    idOfTurtle = Math.max(idOfTurtle, id);
+    String name = idName(id);
+    Turtle t = nameToTurtle.containsKey(name) ? makeTurtle(id) : new Turtle(name, id, myView.getArenaWidth(), myView.getArenaHeight());
+    myView.showTurtle(t.getName());
+    return t;
+  }
+
+  private String idName(double id) {
+    return id == Math.rint(id) ? Long.toString((long) id) : Double.toString(id);
+  }
+
+  private Turtle makeTurtle(double id) {
+    Turtle t = new Turtle(id, myView.getArenaWidth(), myView.getArenaHeight());
+    if (nameCount.containsKey(t.getName())) {
+      Integer generation = nameCount.get(t.getName());
+      nameCount.put(t.getName(), nameCount.get(t.getName()) + 1);
       RomanNumerals rn = new RomanNumerals();
-      turtle.setName(turtle.getName() + " " + rn.intToNumeral(generation));
+      t.setName(t.getName() + " " + rn.intToNumeral(generation));
     }
-    nameCount.putIfAbsent(turtle.getName(), SECOND_GEN);
-    nameToTurtle.putIfAbsent(turtle.getName(), turtle);
-    modelExternal.setTurtle(turtle);
+    nameCount.putIfAbsent(t.getName(), SECOND_GEN);
+    nameToTurtle.putIfAbsent(t.getName(), t);
+    return t;
   }
 
   /**
@@ -124,8 +151,8 @@ public class Controller {
    * @param newValue what it will be changed to
    */
   public void updateConstantVariable(String key, Double newValue) {
-    if (userCreatedConstantVariables.containsKey(key)) {
-      userCreatedConstantVariables.put(key, newValue);
+    if (modelExternal.hasVariable(key)) {
+      modelExternal.setVariable(key, newValue);
     }
   }
 
@@ -136,17 +163,42 @@ public class Controller {
    * @param value variable value
    */
   public void addUserVariable(String key, Double value) {
-    userCreatedConstantVariables.putIfAbsent(key, value);
+    if (!modelExternal.hasVariable(key)) {
+      modelExternal.setVariable(key, value);
+    }
   }
 
   /**
-   * add a user created command to the map of user created commands
+   * add a user created command to the model: a variable holding commands, or a procedure made
+   * with "to", whose syntax is its whole definition
    *
-   * @param key    variable name
-   * @param syntax variable commands
+   * @param key    variable or procedure name
+   * @param syntax variable commands, or the procedure's definition
    */
   public void addUserCommand(String key, String syntax) {
-    userCreatedCommandVariables.putIfAbsent(key, modelExternal.getCommandsOf(syntax));
+    if (key.startsWith(VARIABLE_PREFIX) && !modelExternal.hasVariable(key)) {
+      modelExternal.setCommandVariable(key, modelExternal.getCommandsOf(syntax));
+    } else if (!key.startsWith(VARIABLE_PREFIX) && !modelExternal.hasProcedure(key)) {
+      loadingProcedure = key;
+      try {
+        modelExternal.execute(modelExternal.getCommandsOf(syntax));
+      } finally {
+        loadingProcedure = null;
+      }
+    }
+  }
+
+  /**
+   * Called by the model when a "to" definition has run, so the view can list the procedure; a
+   * procedure the view itself is loading is already listed
+   *
+   * @param name       procedure name
+   * @param definition the procedure's definition, as source text
+   */
+  public void addUserProcedure(String name, String definition) {
+    if (!name.equals(loadingProcedure)) {
+      myView.addCommand(name, definition);
+    }
   }
 
   /**
@@ -156,6 +208,9 @@ public class Controller {
    */
   public void chooseTurtle(String name) {
     turtle = nameToTurtle.get(name);
+    if (turtle == null) {
+      turtle = modelExternal.getTurtle(Double.parseDouble(name));
+    }
     modelExternal.setTurtle(turtle);
   }
 
@@ -168,82 +223,162 @@ public class Controller {
     modelExternal.setLanguage(language);
   }
 
+  /**
+   * Sets how deep programs may recurse before they are stopped with an error
+   *
+   * @param limit the most blocks, calls and lists that may be in progress at once
+   */
+  public void setDepthLimit(int limit) {
+    modelExternal.setDepthLimit(limit);
+  }
+
+  /**
+   * Sets how many steps one run of commands may take before it is stopped with an error
+   *
+   * @param limit the most steps allowed in a run
+   */
+  public void setStepLimit(long limit) {
+    modelExternal.setStepLimit(limit);
+  }
+
+  /**
+   * Stops the commands being run, which may be on another thread, at their next step, and any
+   * commands submitted to run after them
+   */
+  public void stop() {
+    modelExternal.stop();
+  }
+
+  /**
+   * Numbers commands that will be run later, such as once a background thread gets to them, so
+   * that stopping before they start still stops them; safe to call from any thread
+   *
+   * @return the number to run the commands with
+   */
+  public long submitRun() {
+    return modelExternal.submitRun();
+  }
+
   /**
    * Receives the commands to be done from the view/UI
    *
    * @param commands the commands the user typed in
    */
   public void sendCommands(String commands) {
-    executeCommandList(modelExternal.getCommandsOf(commands));
+    sendCommands(commands, submitRun());
   }
 
-
   /**
-   * get the user created constant or variable in a line from the map
+   * Runs commands submitted earlier with submitRun
    *
-   * @param line
-   * @return
+   * @param commands the commands the user typed in
+   * @param run      the number submitRun gave them
    */
-  public Double getUserCreatedConstantVariables(String line) {
-    return userCreatedConstantVariables.get(line);
+  public void sendCommands(String commands, long run) {
+    Block program = modelExternal.getCommandsOf(commands);
+    commandCount = ZERO;
+    try {
+      modelExternal.execute(program, run);
+    } finally {
+      myView.setCommandSize(commandCount);
+      myView.updateStatus();
+    }
   }
 
   /**
-   * @param variable
-   * @return
+   * Runs the commands in a file, starting each top level command as soon as it has been read
+   * instead of loading the whole file first, so very large generated programs can be run
+   *
+   * @param file the file of commands
+   * @throws IOException if the file can't be read
    */
-  public List<Command> getUserCreatedCommandVariables(String variable) {
-    return userCreatedCommandVariables.get(variable);
-  }
-//todo comment
-  public boolean validCommandVariable(String variable){
-    return userCreatedCommandVariables.containsKey(variable);
+  public void sendCommands(Path file) throws IOException {
+    sendCommands(file, submitRun());
   }
 
-  public boolean validConstantVariable(String variable){
-    return userCreatedConstantVariables.containsKey(variable);
+  /**
+   * Runs a file of commands submitted earlier with submitRun, as sendCommands(Path) does
+   *
+   * @param file the file of commands
+   * @param run  the number submitRun gave them
+   * @throws IOException if the file can't be read
+   */
+  public void sendCommands(Path file, long run) throws IOException {
+    commandCount = ZERO;
+    try (Reader commands = Files.newBufferedReader(file)) {
+      modelExternal.execute(commands, run);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } finally {
+      myView.setCommandSize(commandCount);
+      myView.updateStatus();
+    }
   }
 
-  private void executeCommandList(List<Command> l) {
-    myView.setCommandSize(l.size());
-    for (Command c : l) {
-      currentCommand = c;
-      currentCommand.execute();
-      makeMethod(currentCommand.getViewInteractionString().split(" ")[ZERO]);
+  /**
+   * Called by the model each time it has executed a command, so the view can show what it did.
+   * The position is where the command left its turtle, which for turtles run in parallel is
+   * reported after the turtle may have moved on.
+   *
+   * @param command the command that was just executed
+   * @param by      the turtle that executed it; the view switches to it first if needed
+   * @param x       x position of the turtle after the command
+   * @param y       y position of the turtle after the command
+   * @param heading heading of the turtle after the command
+   */
+  public void commandExecuted(Command command, Turtle by, double x, double y, double heading) {
+    currentCommand = command;
+    commandCount++;
+    if (by != null && by != turtle) {
+      turtle = by;
+      myView.chooseTurtle(by.getName());
     }
-    myView.updateStatus();
-  }
-
-  private void makeMethod(String methodName){
-   try {
-      Method method = Controller.class.getDeclaredMethod(methodName);
-      method.invoke(Controller.this);
-    } catch (NoSuchMethodException e) {
-      throw new NoClassException(new Throwable(), errorResources.getString("NoMethod"));
-    } catch (IllegalAccessException e) {
-      throw new IllegalException(new Throwable(), errorResources.getString("Illegal"));
-    } catch (InvocationTargetException e) {
-      throw new InvocationException(new Throwable(), errorResources.getString("Invocation"));
+    switch (command.getEffect()) {
+      case MOVE:
+        myView.update(x, y, heading);
+        break;
+      case CLEAR:
+        clear(x, y, heading);
+        break;
+      case PEN_STATUS:
+        updatePenStatus();
+        break;
+      case PEN_COLOR:
+        updateCommandPenColor();
+        break;
+      case PEN_SIZE:
+        updatePenSize();
+        break;
+      case SHAPE:
+        updateShape();
+        break;
+      case TURTLE_VIEW:
+        updateTurtleView();
+        break;
+      case BACKGROUND:
+        updateBackgroundColor();
+        break;
+      case PALETTE:
+        setColorPalette();
+        break;
+      case CONSTANT_VARIABLE:
+        addUserConstantToMap();
+        break;
+      case COMMAND_VARIABLE:
+        addUserCommandToMap();
+        break;
+      default:
+        throw new NoClassException(new Throwable(), errorResources.getString("NoMethod") + ": " + command.getEffect());
     }
   }
 
   private void addUserConstantToMap() {
-    String variableName = currentCommand.getViewInteractionString().split(" ")[ONE];
-      userCreatedConstantVariables.put(variableName, currentCommand.getResult());
-      myView.addVariable(variableName, currentCommand.getResult());
+    myView.addVariable(((MakeVariable) currentCommand).getVariable(), currentCommand.getResult());
   }
 
   private void addUserCommandToMap(){
-    String variableName = currentCommand.getViewInteractionString().split(" ")[ONE];
-    List<Command> commands = currentCommand.getCommandList();
-    commands.remove(ZERO); //remove the MakeVariable command
-    userCreatedCommandVariables.put(variableName, commands);
-    String commandSyntax = commands.get(ZERO).toString();
-    myView.addCommand(variableName, commandSyntax);
-  }
-
-  private void update(){
-    myView.update(turtle.getX(), turtle.getY(), turtle.getHeading());
+    MakeVariable makeVariable = (MakeVariable) currentCommand;
+    myView.addCommand(makeVariable.getVariable(), makeVariable.getCommands().toString());
   }
 
   private void updatePenSize(){
@@ -270,14 +405,14 @@ public class Controller {
     myView.updateTurtleView(currentCommand.getResult());
   }
 
-  private void clear() {
+  private void clear(double x, double y, double heading) {
     myView.updatePenStatus(0);
-    myView.update(turtle.getX(), turtle.getY(), turtle.getHeading());
+    myView.update(x, y, heading);
     myView.clear();
     myView.updatePenStatus(1);
   }
 
   private void setColorPalette(){
-    myView.setColorPalette(currentCommand.getResult(), currentCommand.getViewInteractionString().split(" ")[1]);
+    myView.setColorPalette(currentCommand.getResult(), String.format(HEX_COLOR, ((SetPalette) currentCommand).getPackedColor()));
   }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package slogo.exceptions;
+
+
+public class RecursionDepthException extends SuperException {
+
+    /**
+     * Thrown when a program nests or recurses deeper than the evaluator allows
+     * @param cause cause of error
+     * @param text text to be displayed
+     */
+    public RecursionDepthException(Throwable cause, String text){
+        super(cause, text);
+    }
+}
@@ -0,0 +1,14 @@
+package slogo.exceptions;
+
+
+public class StoppedException extends SuperException {
+
+    /**
+     * Thrown when a program is stopped before it finishes, by the user or by running out of steps
+     * @param cause cause of error
+     * @param text text to be displayed
+     */
+    public StoppedException(Throwable cause, String text){
+        super(cause, text);
+    }
+}
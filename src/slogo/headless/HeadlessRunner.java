@@ -0,0 +1,78 @@
+package slogo.headless;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import slogo.controller.Controller;
+import slogo.exceptions.InvalidCommandException;
+import slogo.exceptions.SuperException;
+
+/**
+ * Runs .logo programs without opening a window. Each program gets its own controller and a
+ * RecordingView, so it starts from a new turtle and no variables or commands, and the final state
+ * of every turtle and every segment they drew are written to one output file, one section per program.
+ *
+ * Usage: HeadlessRunner language output program.logo [program.logo ...]
+ */
+public class HeadlessRunner {
+  private static final String TURTLE_NAME = "turtle";
+  private static final double HOME = 0;
+  private static final int FIRST_PROGRAM = 2;
+  private static final int FAILED = 1;
+
+  private String language;
+
+  /**
+   * @param language the language the programs are written in (aka English, Chinese, etc)
+   */
+  public HeadlessRunner(String language){
+    this.language = language;
+  }
+
+  /**
+   * Runs one program and writes its section of the output
+   * @param program the file of commands
+   * @param out where to write the result
+   * @return true if the program ran to the end without an error
+   * @throws IOException if the output can't be written
+   */
+  public boolean run(Path program, Appendable out) throws IOException {
+    RecordingView view = new RecordingView();
+    Controller controller = new Controller(view, language);
+    view.showTurtle(TURTLE_NAME);
+    controller.addTurtle(TURTLE_NAME, HOME, HOME, HOME);
+    String error = null;
+    try {
+      controller.sendCommands(program);
+    } catch (InvalidCommandException e){
+      error = "Invalid " + e.getType() + ": " + e.getSyntax();
+    } catch (SuperException | IOException e){
+      error = e.getMessage();
+    }
+    out.append("program ").append(program.toString()).append('\n');
+    if(error != null){
+      out.append("error ").append(error).append('\n');
+    }
+    view.write(out);
+    return error == null;
+  }
+
+  public static void main(String[] args) throws IOException {
+    if(args.length <= FIRST_PROGRAM){
+      System.err.println("Usage: HeadlessRunner language output program.logo [program.logo ...]");
+      System.exit(FAILED);
+    }
+    HeadlessRunner runner = new HeadlessRunner(args[0]);
+    boolean passed = true;
+    try (Writer out = Files.newBufferedWriter(Paths.get(args[1]))) {
+      for(int i = FIRST_PROGRAM; i < args.length; i++){
+        passed &= runner.run(Paths.get(args[i]), out);
+      }
+    }
+    if(!passed){
+      System.exit(FAILED);
+    }
+  }
+}
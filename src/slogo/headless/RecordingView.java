@@ -0,0 +1,212 @@
+package slogo.headless;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import slogo.view.ViewExternalAPI;
+
+/**
+ * A view with no window. Instead of drawing, it keeps the line every move makes while the pen is
+ * down and the last state the controller reported for each turtle, so a program can be run at
+ * interpreter speed and its result written out as text. Turtles are numbered in the order they
+ * were shown, from zero, since their names are picked at random.
+ */
+public class RecordingView implements ViewExternalAPI {
+  private static final int ARENA_SIZE = 500;
+  private static final double DRAWING = 1;
+  private static final double NOT_DRAWING = 0;
+  private static final double VISIBLE = 1;
+  private static final double DEFAULT_PEN_INDEX = 0;
+  private static final double DEFAULT_BG_INDEX = 7;
+  private static final double DEFAULT_SHAPE_INDEX = 0;
+  private static final double DEFAULT_SIZE_PIXELS = 3;
+  private static final int SEGMENT_FIELDS = 7;
+  private static final int DEFAULT_CAPACITY = 64 * SEGMENT_FIELDS;
+
+  /**
+   * The last state reported for one turtle
+   */
+  private static class TurtleState {
+    private final int index;
+    private double x;
+    private double y;
+    private double heading;
+    private double penStatus = DRAWING;
+    private double penColor = DEFAULT_PEN_INDEX;
+    private double penSize = DEFAULT_SIZE_PIXELS;
+    private double shape = DEFAULT_SHAPE_INDEX;
+    private double visibility = VISIBLE;
+
+    TurtleState(int turtleIndex){
+      index = turtleIndex;
+    }
+  }
+
+  private List<TurtleState> turtles;
+  private Map<String, TurtleState> byName;
+  private TurtleState current;
+  private double background;
+  private int commandCount;
+  private Map<Double, String> palette;
+  private double[] segments;
+  private int size;
+
+  /**
+   * Create a view with nothing drawn and no turtles; the first turtle shown starts out current
+   */
+  public RecordingView(){
+    turtles = new ArrayList<>();
+    byName = new HashMap<>();
+    background = DEFAULT_BG_INDEX;
+    palette = new TreeMap<>();
+    segments = new double[DEFAULT_CAPACITY];
+  }
+
+  @Override
+  public void update(double newX, double newY, double newAngle){
+    if(current.penStatus != NOT_DRAWING && (newX != current.x || newY != current.y)){
+      addSegment(newX, newY);
+    }
+    current.x = newX;
+    current.y = newY;
+    current.heading = newAngle;
+  }
+
+  @Override
+  public void updateCommandPenColor(double value){
+    current.penColor = value;
+  }
+
+  @Override
+  public void updateBackgroundColor(double value){
+    background = value;
+  }
+
+  @Override
+  public void updatePenSize(double value){
+    current.penSize = value;
+  }
+
+  @Override
+  public void updateShape(double value){
+    current.shape = value;
+  }
+
+  @Override
+  public void clear(){
+    size = 0;
+  }
+
+  @Override
+  public void updateTurtleView(double value){
+    current.visibility = value;
+  }
+
+  @Override
+  public void updatePenStatus(double value){
+    current.penStatus = value;
+  }
+
+  @Override
+  public void updateStatus(){
+  }
+
+  @Override
+  public void addCommand(String commandSyntax, String syntax){
+  }
+
+  @Override
+  public void addVariable(String newVariable, Double newValue){
+  }
+
+  @Override
+  public void setCommandSize(int commands){
+    commandCount = commands;
+  }
+
+  @Override
+  public void setColorPalette(double id, String hex){
+    palette.put(id, hex);
+  }
+
+  @Override
+  public void showTurtle(String name){
+    TurtleState turtle = new TurtleState(turtles.size());
+    turtles.add(turtle);
+    byName.putIfAbsent(name, turtle);
+    if(current == null){
+      current = turtle;
+    }
+  }
+
+  @Override
+  public void chooseTurtle(String name){
+    current = byName.get(name);
+  }
+
+  @Override
+  public int getArenaWidth(){
+    return ARENA_SIZE;
+  }
+
+  @Override
+  public int getArenaHeight(){
+    return ARENA_SIZE;
+  }
+
+  /**
+   * @return how many lines are drawn
+   */
+  public int getSegmentCount(){
+    return size / SEGMENT_FIELDS;
+  }
+
+  /**
+   * Writes each turtle's final state followed by one line for each segment still drawn, in the
+   * order they were drawn, starting with the number of the turtle that drew it
+   * @param out where to write
+   * @throws IOException if writing fails
+   */
+  public void write(Appendable out) throws IOException {
+    for(TurtleState turtle : turtles){
+      double[] state = {turtle.x, turtle.y, turtle.heading, turtle.penStatus, turtle.penColor, turtle.penSize, turtle.shape, turtle.visibility};
+      out.append("turtle ").append(Integer.toString(turtle.index)).append(' ').append(join(state, 0, state.length)).append('\n');
+    }
+    out.append("background ").append(Double.toString(background)).append('\n');
+    for(Map.Entry<Double, String> entry : palette.entrySet()){
+      out.append("palette ").append(entry.getKey().toString()).append(' ').append(entry.getValue()).append('\n');
+    }
+    out.append("commands ").append(Integer.toString(commandCount)).append('\n');
+    for(int i = 0; i < size; i += SEGMENT_FIELDS){
+      out.append("segment ").append(Integer.toString((int) segments[i])).append(' ').append(join(segments, i + 1, i + SEGMENT_FIELDS)).append('\n');
+    }
+  }
+
+  private void addSegment(double newX, double newY){
+    if(size == segments.length){
+      segments = Arrays.copyOf(segments, size * 2);
+    }
+    segments[size++] = current.index;
+    segments[size++] = current.x;
+    segments[size++] = current.y;
+    segments[size++] = newX;
+    segments[size++] = newY;
+    segments[size++] = current.penColor;
+    segments[size++] = current.penSize;
+  }
+
+  private String join(double[] values, int from, int to){
+    StringBuilder line = new StringBuilder();
+    for(int i = from; i < to; i++){
+      if(i > from){
+        line.append(' ');
+      }
+      line.append(values[i]);
+    }
+    return line.toString();
+  }
+}
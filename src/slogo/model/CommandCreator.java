@@ -1,371 +1,558 @@
 package slogo.model;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.io.Reader;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.ResourceBundle;
-import java.util.Stack;
-import slogo.controller.Controller;
+import java.util.function.Consumer;
 import slogo.exceptions.*;
-import slogo.model.command.*;
-
+import slogo.model.ast.Block;
+import slogo.model.ast.Call;
+import slogo.model.ast.Constant;
+import slogo.model.ast.Definition;
+import slogo.model.ast.Node;
+import slogo.model.ast.Procedure;
+import slogo.model.ast.ProcedureCall;
+import slogo.model.ast.VariableRef;
+
+/**
+ * Parses SLogo source into a tree of nodes without running any of it. Tokens are shifted onto
+ * stacks until the innermost waiting command has everything its Arity asks for, and then that
+ * command is reduced to a Call, which becomes a parameter of the command waiting under it or,
+ * when there is none, the next statement of the enclosing list or program. A "to" definition
+ * declares its procedure as soon as its inputs have been read, so the body, and everything
+ * after it, can call the procedure; inside the body the inputs are resolved to the slots of
+ * the call's frame. If the source then fails to parse, the declarations of every definition
+ * not yet handed on to run are taken back, so no procedure is left without a body.
+ */
 public class CommandCreator {
   private static final String LANGUAGES_PACKAGE = "resources.languages.";
   private static final String ERROR_PACKAGE = "resources.information.ErrorText";
-  private static final String INFORMATION_PACKAGE = "resources.information.";
-  private static final String COMMAND_PACKAGE = "slogo.model.command.";
-  private static final String COMMAND = "Command";
-  private static final String CONSTANT = "Constant";
   private static final String NO_MATCH = "NO MATCH";
-  private static final String VARIABLE = "Variable";
-  private static final String LIST_START = "ListStart";
-  private static final String LIST_END = "ListEnd";
-  private static final String DO = "do";
-  private static final String WORK = "Work";
-  private static final String WHITESPACE = "\\s+";
+  private static final String LIST_START = "[";
+  private static final String DEFINITION = "MakeUserInstruction";
+  private static final String IF = "If";
+  private static final String IF_ELSE = "IfElse";
   private static final int ZERO = 0;
+  private static final int NOT_LOCAL = -1;
+  private static final Procedure NOT_DECLARED = new Procedure("", Collections.emptyList());
 
-  private Controller control;
-  private Stack<String> waitingCommandsStack, variablesStack;
-  private Stack<Double> argumentStack;
-  private Stack<Integer> doubleParametersStack, listParametersStack, variableParametersStack;
-  private Stack<List<Command>> listStack;
-  private Stack<Stack> commandStackHolder, argumentStackHolder, parametersStackHolder, listParametersStackHolder, variableStackHolder, variableParametersStackHolder, listStackHolder;
-  private Stack<List<Command>> currentListHolder = new Stack<>();
-  private Turtle turtle;
+  /**
+   * How far through "to name [ inputs ] [ body ]" the parser is
+   */
+  private enum DefinitionState { NONE, NAME, PARAMETERS_START, PARAMETERS, BODY_START, BODY }
+
+  private Deque<Node> argumentStack;
+  private Deque<Block> listStack;
+  private Deque<VariableRef> variablesStack;
+  private Deque<String> commandWordsStack;
+  private IntStack waitingCommandsStack, argumentBaseStack, listBaseStack, variableBaseStack;
+  private IntStack frameStack;
+  private Deque<List<Node>> statementsHolder;
+  private List<Node> statements;
+  private int commandBase;
+  private TokenType currentType;
   private String currentLine;
-  private Parser commandParser, parametersParser, syntaxParser, listParamsParser, doubleParamsParser, varsParamsParser;
-  private List<Command> currentList, extendedList;
+  private KeywordTable commandTable;
+  private String currentLanguage;
+  private ParseCache parseCache;
+  private CommandFactory commandFactory;
+  private VariableTable variables;
+  private ProcedureTable procedures;
+  private DefinitionState definitionState;
+  private String definitionWord, procedureName;
+  private List<String> parameterNames;
+  private Procedure defining;
+  private Deque<String> declaredNames;
+  private Deque<Procedure> replacedProcedures;
+  private int bodyFrame;
+  private int ifId, ifElseId;
   private ResourceBundle errorResources;
 
   /**
-   * The constructor for controller class, initializes the view, list of
-   * symbols that is being used for parsing, map of created variables,
-   * all of the stacks used, and the parsers for each different stack
+   * Creates a parser for the given language
+   * @param factory knows the id and parameters of every command
+   * @param variableTable gives each variable named in the source its slot
+   * @param procedureTable holds the procedures made with "to"
    * @param language the specific language being used (aka english, chinese, etc)
    */
-  public CommandCreator(Controller controller, String language) {
-    control = controller;
+  public CommandCreator(CommandFactory factory, VariableTable variableTable, ProcedureTable procedureTable, String language) {
     errorResources = ResourceBundle.getBundle(ERROR_PACKAGE);
-    makeParsers(language);
+    commandFactory = factory;
+    variables = variableTable;
+    procedures = procedureTable;
+    ifId = factory.getId(IF);
+    ifElseId = factory.getId(IF_ELSE);
+    parseCache = new ParseCache();
+    setLanguage(language);
     makeStacks();
   }
 
   /**
-   * Allows the user to pick a turtle to do work on
-   * @param t turtle to become the current turtle
-   */
-  public void setTurtle(Turtle t){
-    turtle = t;
-  }
-
-  public void orientTurtle(double x, double y, double heading){
-    turtle.setX(x);
-    turtle.setY(y);
-    turtle.setHeading(heading);
-  }
-
-  /**
-   * Change to a new language of input
+   * Change to a new language of input. Programs parsed in the old language stay cached under
+   * that language, so they are not found for text in the new one
    * @param language input language: English, Spanish, Urdu, etc.
    */
   public void setLanguage(String language){
-    commandParser = new Parser(LANGUAGES_PACKAGE);
-    commandParser.addPatterns(language);
+    commandTable = new KeywordTable(LANGUAGES_PACKAGE, language);
+    currentLanguage = language;
   }
 
   /**
-   * Receives the commands to be done from the view/UI
+   * Parses the commands the user typed, without running them, or hands back the program
+   * parsed the last time the same text was given in the same language
    * @param commands the commands the user typed in
+   * @return the program as a block of statements
    */
-  public List<Command> getCommandsOf(String commands){
-    return createExtendedList(parseText(asList(commands.split(WHITESPACE))));
+  public Block getCommandsOf(String commands){
+    String key = parseCache.keyOf(currentLanguage, commands);
+    Block program = parseCache.get(key);
+    if(program == null){
+      List<Node> statementList = new ArrayList<>();
+      parseText(new Lexer(commands), statementList::add, false);
+      program = new Block(statementList);
+      parseCache.put(key, program);
+    }
+    return program;
   }
 
-  private void makeParsers(String language){
-    setLanguage(language);
-
-    syntaxParser = new Parser(LANGUAGES_PACKAGE);
-    syntaxParser.addPatterns("Syntax");
-
-    parametersParser = new Parser(INFORMATION_PACKAGE);
-    parametersParser.addPatterns("Parameters");
-
-    listParamsParser = new Parser(INFORMATION_PACKAGE);
-    listParamsParser.addPatterns("ListParameters");
-
-    doubleParamsParser = new Parser(INFORMATION_PACKAGE);
-    doubleParamsParser.addPatterns("TurtleAndDoubleParameters");
+  /**
+   * Parses commands while they are being read, handing on each top level statement as soon as
+   * its last token has been seen. Only the statement being parsed is held in memory, so a file
+   * much larger than the heap can be run, and the first statements can run before the rest of
+   * the file has been read.
+   * @param commands where the commands are read from
+   * @param statementHandler gets each top level statement, in order
+   */
+  public void parseStatements(Reader commands, Consumer<Node> statementHandler){
+    parseText(new Lexer(commands), statementHandler, true);
+  }
 
-    varsParamsParser = new Parser(INFORMATION_PACKAGE);
-    varsParamsParser.addPatterns("VariablesParameters");
+  /**
+   * @return the cache of parsed programs, for its hit and miss counts
+   */
+  public ParseCache getParseCache(){
+    return parseCache;
   }
 
   private void makeStacks() {
-    makeNewStacks();
-    listParametersStack = new Stack<>();
+    argumentStack = new ArrayDeque<>();
+    listStack = new ArrayDeque<>();
+    variablesStack = new ArrayDeque<>();
+    commandWordsStack = new ArrayDeque<>();
+    waitingCommandsStack = new IntStack();
+    argumentBaseStack = new IntStack();
+    listBaseStack = new IntStack();
+    variableBaseStack = new IntStack();
+    frameStack = new IntStack();
+    statementsHolder = new ArrayDeque<>();
+    declaredNames = new ArrayDeque<>();
+    replacedProcedures = new ArrayDeque<>();
+  }
+
+  private void clearStacks() {
+    argumentStack.clear();
+    listStack.clear();
+    variablesStack.clear();
+    commandWordsStack.clear();
+    waitingCommandsStack.clear();
+    argumentBaseStack.clear();
+    listBaseStack.clear();
+    variableBaseStack.clear();
+    frameStack.clear();
+    statementsHolder.clear();
+    declaredNames.clear();
+    replacedProcedures.clear();
+    commandBase = ZERO;
+    definitionState = DefinitionState.NONE;
   }
 
-  private void makeNewStacks(){ //INTENTIONALLY MAKING NEW STACKS RATHER THAN CLEARING
-    waitingCommandsStack = new Stack<>();
-    argumentStack = new Stack<>();
-    doubleParametersStack = new Stack<>();
-    variablesStack = new Stack<>();
-    variableParametersStack = new Stack<>();
-    listStack = new Stack<>();
+  /**
+   * Starts a new frame for the contents of a [ list ]: commands waiting outside the list are
+   * left where they are, and only the commands above the new base belong to the list
+   */
+  private void holdStacks(){
+    frameStack.push(commandBase);
+    commandBase = waitingCommandsStack.size();
+    statementsHolder.push(statements);
+    statements = new ArrayList<>();
   }
 
-  private void makeHolderStacks() {
-    commandStackHolder = new Stack<>();
-    argumentStackHolder = new Stack<>();
-    parametersStackHolder = new Stack<>();
-    listParametersStackHolder = new Stack<>();
-    variableStackHolder = new Stack<>();
-    variableParametersStackHolder = new Stack<>();
-    listStackHolder = new Stack<>();
-    currentListHolder = new Stack<>();
+  /**
+   * Ends the frame of a [ list ]
+   * @return the contents of the list
+   */
+  private Block stopHoldingStacks(){
+    Block block = new Block(statements);
+    commandBase = frameStack.pop();
+    statements = statementsHolder.pop();
+    return block;
   }
 
-  private void holdStacks(){
-    commandStackHolder.push(waitingCommandsStack);
-    argumentStackHolder.push(argumentStack);
-    parametersStackHolder.push(doubleParametersStack);
-    listParametersStackHolder.push(listParametersStack);
-    variableStackHolder.push(variablesStack);
-    variableParametersStackHolder.push(variableParametersStack);
-    listStackHolder.push(listStack);
-    makeNewStacks();
-    listStack =  listStackHolder.pop();
-    currentListHolder.push(currentList);
-  }
-
-  private void stopHoldingStacks(){
-    waitingCommandsStack = commandStackHolder.pop();
-    argumentStack = argumentStackHolder.pop();
-    doubleParametersStack = parametersStackHolder.pop();
-    listParametersStack = listParametersStackHolder.pop();
-    variablesStack = variableStackHolder.pop();
-    variableParametersStack = variableParametersStackHolder.pop();
-    currentList = currentListHolder.pop();
-  }
-
-  private List<String> asList(String[] array){
-    List<String> list = new ArrayList<>();
-    for(String s : array){ list.add(s); }
-    return list;
-  }
-
-  private List<Command> parseText(List<String> lines) {
-    currentList = new ArrayList<>();
-    ListIterator<String> iterator = lines.listIterator();
-
-    if (syntaxParser.getSymbol(lines.get(ZERO)).equals(CONSTANT)){ // eg they type in 50 fd
+  /**
+   * @param runsHandedOn true if the statements handed on are run straight away, so the
+   * procedures they declare are kept even if the source fails to parse further on
+   */
+  private void parseText(Lexer lexer, Consumer<Node> statementHandler, boolean runsHandedOn) {
+    if (lexer.next() == TokenType.CONSTANT){ // eg they type in 50 fd
       throw new InvalidConstantException(new Throwable(), errorResources.getString("StartWithConstant"));
     }
 
-    makeHolderStacks();
+    clearStacks();
+    statements = new ArrayList<>();
+    try {
+      parseTokens(lexer, statementHandler, runsHandedOn);
+    } catch (RuntimeException e){
+      undoDeclarations();
+      throw e;
+    }
+  }
+
+  private void parseTokens(Lexer lexer, Consumer<Node> statementHandler, boolean runsHandedOn) {
 
-    while(iterator.hasNext()) {
-      currentLine = iterator.next();
-      if (currentLine.trim().length() > ZERO) {
-        String commandSyntax = syntaxParser.getSymbol(currentLine); //get what sort of thing it is
-        makeMethod(doWorkString(commandSyntax));
-        tryToMakeCommands(currentList);
+    while(lexer.getType() != null) {
+      currentType = lexer.getType();
+      currentLine = lexer.getText();
+      doWork(currentType); //do what that sort of thing needs
+      if(frameStack.isEmpty()){
+        handStatementsOn(statementHandler);
+        if(runsHandedOn){
+          declaredNames.clear();
+          replacedProcedures.clear();
+        }
       }
+      lexer.next();
+    }
+    if(!frameStack.isEmpty()){
+      throw new InvalidCommandException(new Throwable(), TokenType.LIST_START.toString(), LIST_START);
     }
-    while(!waitingCommandsStack.isEmpty()){
-      tryToMakeCommands(currentList);
+    if(definitionState != DefinitionState.NONE){
+      throw new InvalidCommandException(new Throwable(), TokenType.COMMAND.toString(), definitionWord);
     }
-    return createExtendedList(currentList);
+    checkNothingWaiting();
   }
 
-  private void makeMethod(String methodName){
-    try {
-      Method method = CommandCreator.class.getDeclaredMethod(methodName);
-      method.invoke(CommandCreator.this);
-    } catch (NoSuchMethodException e) {
-      throw new NoClassException(new Throwable(), errorResources.getString("NoMethod"));
-    } catch (IllegalAccessException e) {
-      throw new IllegalException(new Throwable(), errorResources.getString("Illegal"));
-    } catch (InvocationTargetException e) {
-      throw new InvocationException(new Throwable(), errorResources.getString("Invocation"));
+  /**
+   * Nothing can be added to a finished top level statement, since every command comes before
+   * its parameters, so finished statements can be handed on straight away
+   */
+  private void handStatementsOn(Consumer<Node> statementHandler){
+    for(Node statement : statements){
+      statementHandler.accept(statement);
     }
+    statements.clear();
   }
 
-  private void doVariableWork(){
-    if(control.validCommandVariable(currentLine)){
-      List<Command> varCommand = control.getUserCreatedCommandVariables(currentLine);
-      currentList.addAll(varCommand);
-    } else if (control.validConstantVariable(currentLine)){
-      argumentStack.push(control.getUserCreatedConstantVariables(currentLine));
+  private void doWork(TokenType type){
+    if(definitionState != DefinitionState.NONE && definitionState != DefinitionState.BODY){
+      doDefinitionWork(type);
+      return;
+    }
+    switch(type){
+      case CONSTANT:
+        doConstantWork();
+        break;
+      case VARIABLE:
+        doVariableWork();
+        break;
+      case COMMAND:
+        doCommandWork();
+        break;
+      case LIST_START:
+        doListStartWork();
+        break;
+      case LIST_END:
+        doListEndWork();
+        break;
+      default:
+        throw new InvalidCommandException(new Throwable(), type.toString(), currentLine);
     }
-    variablesStack.push(currentLine);
   }
 
-  private String doWorkString(String type){
-    return DO+type+WORK;
+  private void doConstantWork(){
+    addArgument(new Constant(Double.parseDouble(currentLine)));
+  }
+
+  /**
+   * A variable is the name a waiting command sets if that command still needs one, such as
+   * the :x in "make :x 5", and otherwise a use of the variable's value. Either way the name is
+   * turned into its slot here, once, rather than each time the variable is used
+   */
+  private void doVariableWork(){
+    int local = definitionState == DefinitionState.BODY ? parameterNames.indexOf(currentLine) : NOT_LOCAL;
+    VariableRef variable = local == NOT_LOCAL ? new VariableRef(currentLine, variables.slotOf(currentLine)) : new VariableRef(currentLine, local, true);
+    if(waitingCommandsStack.size() > commandBase && givenVariables() < variableParameters(waitingCommandsStack.peek())){
+      variablesStack.push(variable);
+      tryToMakeCommands();
+    } else {
+      addArgument(variable);
+    }
   }
 
   private void doListStartWork(){
     holdStacks();
-    currentList = new ArrayList<>();
   }
 
   private void doListEndWork(){
-    if(!currentList.isEmpty()) {
-      listStack.push(currentList);
+    if(frameStack.isEmpty()){
+      throw new InvalidCommandException(new Throwable(), currentType.toString(), currentLine);
+    }
+    checkNothingWaiting();
+    boolean endsBody = definitionState == DefinitionState.BODY && frameStack.size() == bodyFrame;
+    Block list = stopHoldingStacks();
+    if(endsBody){
+      finishDefinition(list);
+    } else {
+      addList(list);
     }
-    stopHoldingStacks();
   }
 
   private void doCommandWork(){
-    String commandName = commandParser.getSymbol(currentLine); //get the string name, such as "Forward" or "And"
-    if (commandName.equals(NO_MATCH)) {
-      throw new InvalidCommandException(new Throwable(), syntaxParser.getSymbol(currentLine), currentLine);
+    String commandName = commandTable.getCommand(currentLine); //get the string name, such as "Forward" or "And"
+    if (commandName.equals(DEFINITION) && definitionState == DefinitionState.NONE) {
+      definitionWord = currentLine;
+      definitionState = DefinitionState.NAME;
+    } else if (commandName.equals(DEFINITION)) { // a "to" inside the body of another
+      throw new InvalidCommandException(new Throwable(), TokenType.COMMAND.toString(), currentLine);
+    } else if (!commandName.equals(NO_MATCH)) {
+      waitFor(commandFactory.getId(commandName));
+    } else if (procedures.indexOf(currentLine) != ProcedureTable.NOT_FOUND) {
+      waitFor(procedureId(procedures.indexOf(currentLine)));
     } else {
-      validCommand(commandName);
+      throw new InvalidCommandException(new Throwable(), TokenType.COMMAND.toString(), currentLine);
     }
   }
 
-  private void validCommand(String commandName) {
-    waitingCommandsStack.push(commandName); //add string to stack
-    pushParamsNeeded(parametersParser.getSymbol(commandName)); //get Parameters string, and convert that string to a double
+  /**
+   * Reads the name and inputs of a "to" definition and the [ that starts its body. The
+   * procedure is declared once its inputs are known, so the body can call it
+   */
+  private void doDefinitionWork(TokenType type){
+    if(definitionState == DefinitionState.NAME && type == TokenType.COMMAND && commandTable.getCommand(currentLine).equals(NO_MATCH)){
+      procedureName = currentLine;
+      definitionState = DefinitionState.PARAMETERS_START;
+    } else if (definitionState == DefinitionState.PARAMETERS_START && type == TokenType.LIST_START){
+      parameterNames = new ArrayList<>();
+      definitionState = DefinitionState.PARAMETERS;
+    } else if (definitionState == DefinitionState.PARAMETERS && type == TokenType.VARIABLE && !parameterNames.contains(currentLine)){
+      parameterNames.add(currentLine);
+    } else if (definitionState == DefinitionState.PARAMETERS && type == TokenType.LIST_END){
+      declareProcedure();
+      definitionState = DefinitionState.BODY_START;
+    } else if (definitionState == DefinitionState.BODY_START && type == TokenType.LIST_START){
+      holdStacks();
+      bodyFrame = frameStack.size();
+      definitionState = DefinitionState.BODY;
+    } else {
+      throw new InvalidCommandException(new Throwable(), type.toString(), currentLine);
+    }
   }
 
-  private void doConstantWork(){
-    argumentStack.push(Double.parseDouble(currentLine));
+  /**
+   * Programs already parsed against a procedure that now takes a different number of inputs
+   * would parse differently, so the cache is emptied
+   */
+  private void declareProcedure(){
+    int index = procedures.indexOf(procedureName);
+    if(index != ProcedureTable.NOT_FOUND && procedures.get(index).getParameters().size() != parameterNames.size()){
+      parseCache.clear();
+    }
+    declaredNames.push(procedureName);
+    replacedProcedures.push(index == ProcedureTable.NOT_FOUND ? NOT_DECLARED : procedures.get(index));
+    defining = procedures.declare(procedureName, parameterNames);
   }
 
   /**
-   * puts the number of parameters of each type on each respective parameters stack
-   * @param commandType type of command
+   * Takes back the procedures declared by definitions that failed to parse, or were parsed with
+   * source that failed, newest first
    */
-  private void pushParamsNeeded(String commandType){
-    String listParamString = listParamsParser.getSymbol(commandType);
-    String doubleParamsString = doubleParamsParser.getSymbol(commandType);
-    String varsParamsString = varsParamsParser.getSymbol(commandType);
-
-    if(listParamString.equals(NO_MATCH) || doubleParamsString.equals(NO_MATCH) || varsParamsString.equals(NO_MATCH)){
-      throw new InvalidPropertyException(new Throwable(), errorResources.getString("InvalidPropertiesFile"));
+  private void undoDeclarations(){
+    while(!declaredNames.isEmpty()){
+      Procedure previous = replacedProcedures.pop();
+      procedures.undeclare(declaredNames.pop(), previous == NOT_DECLARED ? null : previous);
     }
+  }
 
-    listParametersStack.push(Integer.parseInt(listParamString));
-    doubleParametersStack.push(Integer.parseInt(doubleParamsString));
-    variableParametersStack.push(Integer.parseInt(varsParamsString));
+  private void finishDefinition(Block body){
+    definitionState = DefinitionState.NONE;
+    addArgument(new Definition(definitionWord, defining, parameterNames, markTailCalls(body)));
   }
 
-  private List<Command> tryToMakeCommands(List<Command> commandList){
-    if(variableParametersStack.isEmpty()){
-      return commandList; //we have nothing more to do
+  /**
+   * The last statement of a procedure body is in tail position, and so is the last statement
+   * of each list of an if or ifelse that is itself in tail position
+   */
+  private Block markTailCalls(Block block){
+    if(block.isEmpty()){
+      return block;
     }
-    if (variableParametersStack.peek() != ZERO && (checkArgumentStack() || checkListStack())){
-      commandList.add(weHaveEnoughArgumentsToMakeACommand(commandList));
-    } else if (variableParametersStack.peek() == ZERO && checkArgumentStack() && checkListStack()){
-      commandList.add(weHaveEnoughArgumentsToMakeACommand(commandList));
+    List<Node> nodes = new ArrayList<>(block.getNodes());
+    int last = nodes.size() - 1;
+    nodes.set(last, markTailCall(nodes.get(last)));
+    return new Block(nodes);
+  }
+
+  private Node markTailCall(Node node){
+    if(node instanceof ProcedureCall){
+      return ((ProcedureCall) node).asTailCall();
+    } else if (node instanceof Block){
+      return markTailCalls((Block) node);
+    } else if (node instanceof Call && isBranch((Call) node)){
+      Call call = (Call) node;
+      List<Block> blocks = new ArrayList<>();
+      for(Block block : call.getBlocks()){
+        blocks.add(markTailCalls(block));
+      }
+      return new Call(call.getId(), call.getName(), call.getArguments(), blocks, call.getVariables());
     }
-    return commandList;
+    return node;
   }
 
-  private boolean checkArgumentStack(){
-    return !doubleParametersStack.isEmpty() && argumentStack.size() >= doubleParametersStack.peek();
+  private boolean isBranch(Call call){
+    return call.getId() == ifId || call.getId() == ifElseId;
   }
 
-  private boolean checkListStack(){
-    return !listParametersStack.isEmpty() && (listStack.size() >= listParametersStack.peek());
+  /**
+   * Procedures wait on the command stack under negative ids, so they can't be mistaken for
+   * commands from the CommandFactory
+   */
+  private int procedureId(int procedureIndex){
+    return -1 - procedureIndex;
   }
 
-  private Command weHaveEnoughArgumentsToMakeACommand(List<Command> commands){
-    if(variableParametersStack.peek() != ZERO && checkArgumentStack()){
-      listParametersStack.pop();
-      listParametersStack.push(ZERO);
-    } else if (variableParametersStack.peek() != ZERO && checkListStack()){
-      doubleParametersStack.pop();
-      doubleParametersStack.push(ZERO);
-    }
-    Command newCommand = getCommand(waitingCommandsStack.pop());
-    if(!variablesStack.isEmpty()){
-      listStack.push(List.of(newCommand));
-      tryToMakeCommands(commands);
-    } else if(!waitingCommandsStack.isEmpty()){
-      argumentStack.push(newCommand.getResult());
-      tryToMakeCommands(commands); //slightly recursive
-    }
-    return newCommand;
-  }
-
-  private Command getCommand(String commandName){
-    try{
-      Class commandClass = Class.forName(COMMAND_PACKAGE + commandName);
-      return makeCommand(commandConstructor(commandClass));
-    } catch (ClassNotFoundException e){
-      throw new NoClassException(new Throwable(), errorResources.getString("NoClass"));
-    } catch (NoSuchMethodException e){
-      throw new NoClassException(new Throwable(), errorResources.getString("NoMethod"));
-    } catch (IllegalAccessException e) {
-      throw new IllegalException(new Throwable(), errorResources.getString("Illegal"));
-    } catch (InstantiationException e) {
-      throw new InstantException(new Throwable(), errorResources.getString("Instantiation"));
-    } catch (InvocationTargetException e) {
-      throw new InvocationException(new Throwable(), errorResources.getString("Invocation"));
-    }
+  private boolean isProcedure(int commandId){
+    return commandId < ZERO;
+  }
+
+  private Procedure procedureOf(int commandId){
+    return procedures.get(-1 - commandId);
+  }
+
+  private int doubleParameters(int commandId){
+    return isProcedure(commandId) ? procedureOf(commandId).getParameters().size() : commandFactory.getDoubleParameters(commandId);
+  }
+
+  private int listParameters(int commandId){
+    return isProcedure(commandId) ? ZERO : commandFactory.getListParameters(commandId);
   }
 
-  private Constructor commandConstructor(Class command) throws NoSuchMethodException {
-    return command.getConstructor(List.class, List.class, List.class, List.class);
+  private int variableParameters(int commandId){
+    return isProcedure(commandId) ? ZERO : commandFactory.getVariableParameters(commandId);
   }
 
-  private Command makeCommand(Constructor constructor) throws IllegalAccessException, InvocationTargetException, InstantiationException {
-    List<Turtle> turtleListToGive = new ArrayList<>();
-    turtleListToGive.add(turtle);
+  private void waitFor(int commandId) {
+    waitingCommandsStack.push(commandId); //add command to stack
+    commandWordsStack.push(currentLine);
+    argumentBaseStack.push(argumentStack.size());
+    listBaseStack.push(listStack.size());
+    variableBaseStack.push(variablesStack.size());
+    tryToMakeCommands(); //commands without parameters are done right away
+  }
 
-    return (Command) constructor.newInstance(turtleListToGive, doubleListToGive(), commandListToGive(), stringListToGive());
+  /**
+   * Gives an expression to the command waiting for it, or makes it a statement of its own
+   */
+  private void addArgument(Node argument){
+    if(waitingCommandsStack.size() == commandBase){
+      statements.add(argument);
+      return;
+    }
+    if(givenArguments() >= doubleParameters(waitingCommandsStack.peek())){
+      throw new InvalidCommandException(new Throwable(), currentType.toString(), currentLine);
+    }
+    argumentStack.push(argument);
+    tryToMakeCommands();
   }
 
-  //todo make the below three methods into one method
-  private List<Double> doubleListToGive(){
-    List<Double> doubles = new ArrayList<>();
-    if(doubleParametersStack.isEmpty()){
-      return doubles;
+  /**
+   * Gives a [ list ] to the command waiting for it, or makes it a statement of its own
+   */
+  private void addList(Block list){
+    if(waitingCommandsStack.size() == commandBase){
+      statements.add(list);
+      return;
     }
-    int numberOfDoublesNeeded = doubleParametersStack.pop();
-    for(int k=0; k < numberOfDoublesNeeded; k++){
-      doubles.add(argumentStack.pop());
+    if(givenLists() >= listParameters(waitingCommandsStack.peek())){
+      throw new InvalidCommandException(new Throwable(), currentType.toString(), currentLine);
     }
-    return doubles;
+    listStack.push(list);
+    tryToMakeCommands();
   }
 
-  private List<List<Command>> commandListToGive(){
-    List<List<Command>> lists = new ArrayList<>();
-    if(listParametersStack.isEmpty()){
-      return lists;
+  /**
+   * Reduces waiting commands for as long as the innermost one has everything it needs; each
+   * finished call is handed to the command under it, which may then be finished as well
+   */
+  private void tryToMakeCommands(){
+    while(waitingCommandsStack.size() > commandBase && hasEverything(waitingCommandsStack.peek())){
+      String word = commandWordsStack.peek();
+      Node call = makeCall();
+      if(waitingCommandsStack.size() == commandBase){
+        statements.add(call);
+      } else if (givenArguments() < doubleParameters(waitingCommandsStack.peek())){
+        argumentStack.push(call);
+      } else {
+        throw new InvalidCommandException(new Throwable(), TokenType.COMMAND.toString(), word);
+      }
     }
-    int numberOfListsNeeded = listParametersStack.pop();
-    for(int k=0; k < numberOfListsNeeded; k++){
-      lists.add(listStack.pop());
+  }
+
+  /**
+   * A command that sets a variable takes either an expression or a list of commands for it
+   */
+  private boolean hasEverything(int commandId){
+    boolean enoughDoubles = givenArguments() >= doubleParameters(commandId);
+    boolean enoughLists = givenLists() >= listParameters(commandId);
+    int variablesNeeded = variableParameters(commandId);
+    if(variablesNeeded != ZERO){
+      return givenVariables() >= variablesNeeded && (enoughDoubles || enoughLists);
     }
-    return lists;
+    return enoughDoubles && enoughLists;
+  }
+
+  private int givenArguments(){
+    return argumentStack.size() - argumentBaseStack.peek();
+  }
+
+  private int givenLists(){
+    return listStack.size() - listBaseStack.peek();
   }
 
-  private List<String> stringListToGive(){
-    List<String> strings = new ArrayList<>();
-    if(variableParametersStack.isEmpty()){
-      return strings;
+  private int givenVariables(){
+    return variablesStack.size() - variableBaseStack.peek();
+  }
+
+  private Node makeCall(){
+    int commandId = waitingCommandsStack.pop();
+    String word = commandWordsStack.pop();
+    List<VariableRef> variableList = popAbove(variablesStack, variableBaseStack.pop());
+    List<Block> lists = popAbove(listStack, listBaseStack.pop());
+    List<Node> arguments = popAbove(argumentStack, argumentBaseStack.pop());
+    if(isProcedure(commandId)){
+      return new ProcedureCall(procedureOf(commandId), word, arguments, false);
     }
-    int numberOfStringsNeeded = variableParametersStack.pop();
-    for(int k=0; k < numberOfStringsNeeded; k++){
-      strings.add(variablesStack.pop());
+    return new Call(commandId, word, arguments, lists, variableList);
+  }
+
+  /**
+   * Pops everything above the base off a stack
+   * @return what was popped, in the order it was pushed
+   */
+  private <T> List<T> popAbove(Deque<T> stack, int base){
+    List<T> items = new ArrayList<>();
+    while(stack.size() > base){
+      items.add(stack.pop());
     }
-    return strings;
+    Collections.reverse(items);
+    return items;
   }
 
-  private List<Command> createExtendedList(List<Command> l){
-    extendedList = new ArrayList<>();
-    for(Command c : l){
-      extendedList.addAll(c.getCommandList());
+  private void checkNothingWaiting(){
+    if(waitingCommandsStack.size() > commandBase){
+      throw new InvalidCommandException(new Throwable(), TokenType.COMMAND.toString(), commandWordsStack.peek());
     }
-    return extendedList;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,212 @@
+package slogo.model;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import slogo.exceptions.IllegalException;
+import slogo.exceptions.InvalidPropertyException;
+import slogo.exceptions.NoClassException;
+import slogo.model.ast.Block;
+import slogo.model.command.Arity;
+import slogo.model.command.Command;
+import slogo.model.command.CommandWithReturningList;
+import slogo.model.command.TurtleSelection;
+
+/**
+ * Creates command objects and answers how many parameters they take. Every command listed in
+ * Parameters.properties is looked up once, when the factory is built, given an integer id, and
+ * bound to a generated factory that calls its constructor directly, so making a command is an
+ * array lookup and a constructor call rather than a Class.forName, getConstructor and
+ * newInstance every time. The Arity each class declares is copied into one int table indexed
+ * by id. A command in the file without a matching class or Arity makes the factory fail right
+ * away instead of at first use. The generated makers are shared by every factory, so building
+ * one for each new model, as a batch of programs does, only spins them up once.
+ */
+public class CommandFactory {
+  private static final String COMMAND_PACKAGE = "slogo.model.command.";
+  private static final String ERROR_PACKAGE = "resources.information.ErrorText";
+  private static final String PARAMETERS = "Parameters";
+  private static final String NO_CLASS = "NoClass";
+  private static final String DO_NOTHING_FOR_NOW = "DoNothingForNow";
+  private static final String TURTLE_GROUP = "Turtle";
+  private static final String ALTERNATIVE = "\\|";
+  private static final String MAKER_METHOD = "make";
+  private static final MethodType MAKER_TYPE = MethodType.methodType(Command.class, List.class, List.class, List.class, List.class);
+  private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(void.class, List.class, List.class, List.class, List.class);
+  private static final int DOUBLES = 0;
+  private static final int LISTS = 1;
+  private static final int VARIABLES = 2;
+  private static final int ARITY_WIDTH = 3;
+
+  /**
+   * A direct call to one command class's constructor
+   */
+  public interface CommandMaker {
+    Command make(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList);
+  }
+
+  private static final Map<Class<?>, CommandMaker> MAKERS = new ConcurrentHashMap<>();
+
+  private Map<String, Integer> ids;
+  private List<String> names;
+  private CommandMaker[] makers;
+  private int[] arities;
+  private boolean[] listRunners;
+  private boolean[] turtleCommands;
+  private boolean[] selections;
+  private ResourceBundle errorResources;
+
+  /**
+   * Builds a maker for every command in the parameters file
+   * @param informationPackage package holding Parameters.properties
+   */
+  public CommandFactory(String informationPackage){
+    errorResources = ResourceBundle.getBundle(ERROR_PACKAGE);
+    ids = new HashMap<>();
+    names = new ArrayList<>();
+    List<String> turtleNames = new ArrayList<>();
+    ResourceBundle parameters = ResourceBundle.getBundle(informationPackage + PARAMETERS);
+    for (String group : Collections.list(parameters.getKeys())) {
+      if (!group.equals(NO_CLASS) && !group.equals(DO_NOTHING_FOR_NOW)) {
+        for (String name : parameters.getString(group).split(ALTERNATIVE)) {
+          if (!name.isBlank() && !ids.containsKey(name.trim())) {
+            ids.put(name.trim(), names.size());
+            names.add(name.trim());
+          }
+          if (!name.isBlank() && group.startsWith(TURTLE_GROUP)) {
+            turtleNames.add(name.trim());
+          }
+        }
+      }
+    }
+    makers = new CommandMaker[names.size()];
+    arities = new int[names.size() * ARITY_WIDTH];
+    listRunners = new boolean[names.size()];
+    turtleCommands = new boolean[names.size()];
+    selections = new boolean[names.size()];
+    for (int id = 0; id < names.size(); id++) {
+      register(id, names.get(id));
+    }
+    for (String name : turtleNames) {
+      turtleCommands[ids.get(name)] = true;
+    }
+  }
+
+  /**
+   * Gets the id of a command
+   * @param commandName canonical name of the command, such as "Forward"
+   * @return the command's id, used to make it and look up its parameters
+   */
+  public int getId(String commandName){
+    Integer id = ids.get(commandName);
+    if (id == null) {
+      throw new NoClassException(new Throwable(), errorResources.getString("NoClass") + ": " + commandName);
+    }
+    return id;
+  }
+
+  /**
+   * @param id command id
+   * @return number of doubles the command takes
+   */
+  public int getDoubleParameters(int id){
+    return arities[id * ARITY_WIDTH + DOUBLES];
+  }
+
+  /**
+   * @param id command id
+   * @return number of lists the command takes
+   */
+  public int getListParameters(int id){
+    return arities[id * ARITY_WIDTH + LISTS];
+  }
+
+  /**
+   * @param id command id
+   * @return number of variables the command takes
+   */
+  public int getVariableParameters(int id){
+    return arities[id * ARITY_WIDTH + VARIABLES];
+  }
+
+  /**
+   * @param id command id
+   * @return true if the command hands out lists to run, as repeat and if do, or picks turtles
+   * to run them, as tell and ask do
+   */
+  public boolean runsLists(int id){
+    return listRunners[id];
+  }
+
+  /**
+   * @param id command id
+   * @return true if the command picks turtles, as tell, ask and askwith do
+   */
+  public boolean selectsTurtles(int id){
+    return selections[id];
+  }
+
+  /**
+   * @param id command id
+   * @return true if the command is done by a turtle, so each picked turtle does it in turn; these
+   * are the commands in the Turtle groups of the parameters file
+   */
+  public boolean usesTurtle(int id){
+    return turtleCommands[id];
+  }
+
+  /**
+   * Makes a new command
+   * @param id id of the command
+   * @param turtleList the list of turtles being brought in to use this command (if needed)
+   * @param doubleList the list of doubles to be used for this command (if needed)
+   * @param commandList the list of commands being used for this command (if needed)
+   * @param stringList the list of strings being used for this command (if needed)
+   * @return the new command
+   */
+  public Command make(int id, List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList){
+    return makers[id].make(turtleList, doubleList, commandList, stringList);
+  }
+
+  private void register(int id, String commandName){
+    Class<?> commandClass;
+    try {
+      commandClass = Class.forName(COMMAND_PACKAGE + commandName);
+    } catch (ClassNotFoundException e) {
+      throw new NoClassException(e, errorResources.getString("NoClass") + ": " + commandName);
+    }
+    Arity arity = commandClass.getAnnotation(Arity.class);
+    if (arity == null) {
+      throw new InvalidPropertyException(new Throwable(), errorResources.getString("NoArity") + ": " + commandName);
+    }
+    arities[id * ARITY_WIDTH + DOUBLES] = arity.doubles();
+    arities[id * ARITY_WIDTH + LISTS] = arity.lists();
+    arities[id * ARITY_WIDTH + VARIABLES] = arity.variables();
+    selections[id] = TurtleSelection.class.isAssignableFrom(commandClass);
+    listRunners[id] = CommandWithReturningList.class.isAssignableFrom(commandClass) || selections[id];
+    makers[id] = MAKERS.computeIfAbsent(commandClass, c -> makeMaker(c, commandName));
+  }
+
+  private CommandMaker makeMaker(Class<?> commandClass, String commandName){
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    try {
+      MethodHandle constructor = lookup.findConstructor(commandClass, CONSTRUCTOR_TYPE);
+      CallSite site = LambdaMetafactory.metafactory(lookup, MAKER_METHOD, MethodType.methodType(CommandMaker.class),
+          MAKER_TYPE, constructor, constructor.type());
+      return (CommandMaker) site.getTarget().invoke();
+    } catch (NoSuchMethodException e) {
+      throw new NoClassException(e, errorResources.getString("NoMethod") + ": " + commandName);
+    } catch (Throwable e) {
+      throw new IllegalException(e, errorResources.getString("Illegal") + ": " + commandName);
+    }
+  }
+}
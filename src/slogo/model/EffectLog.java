@@ -0,0 +1,172 @@
+package slogo.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import slogo.controller.Controller;
+import slogo.model.command.Command;
+
+/**
+ * The commands a part of a parallel run executed, in order, with where each left its turtle.
+ * Turtles run on other threads can't report to the controller as they go, so their effects are
+ * kept here and reported by the thread that started the run, one log after another, in the order
+ * the turtles were picked.
+ *
+ * A log holds at most MOST_KEPT commands. The run's thread reports a log while its part is still
+ * going, taking what has been recorded a batch at a time, and a part that fills its log before
+ * its turn comes waits for it. A log can also be told to report straight to the controller, for
+ * a part the run's thread ends up doing itself.
+ */
+class EffectLog implements ForkJoinPool.ManagedBlocker {
+  private static final int DEFAULT_CAPACITY = 64;
+  private static final int MOST_KEPT = 1 << 14;
+  private static final int POSITION_FIELDS = 3;
+
+  private Command[] commands;
+  private Turtle[] turtles;
+  private double[] positions;
+  private int size;
+  private Command[] spareCommands;
+  private Turtle[] spareTurtles;
+  private double[] sparePositions;
+  private boolean finished;
+  private volatile boolean closed;
+  private Controller direct;
+
+  /**
+   * Create an empty log
+   */
+  EffectLog(){
+    commands = new Command[DEFAULT_CAPACITY];
+    turtles = new Turtle[DEFAULT_CAPACITY];
+    positions = new double[DEFAULT_CAPACITY * POSITION_FIELDS];
+    spareCommands = new Command[DEFAULT_CAPACITY];
+    spareTurtles = new Turtle[DEFAULT_CAPACITY];
+    sparePositions = new double[DEFAULT_CAPACITY * POSITION_FIELDS];
+  }
+
+  /**
+   * Has every command from now on reported straight to the controller instead of recorded; only
+   * called by the thread that will run the part
+   * @param control the controller
+   */
+  void reportTo(Controller control){
+    direct = control;
+  }
+
+  /**
+   * Records a command just executed, first waiting for the log to be reported if it is full
+   * @param command the command
+   * @param turtle the turtle that did it
+   */
+  void add(Command command, Turtle turtle){
+    if(direct != null){
+      direct.commandExecuted(command, turtle, turtle.getX(), turtle.getY(), turtle.getHeading());
+      return;
+    }
+    try {
+      ForkJoinPool.managedBlock(this);
+    } catch (InterruptedException e){
+      Thread.currentThread().interrupt();
+    }
+    synchronized (this){
+      if(closed){
+        return;
+      }
+      if(size == commands.length){
+        commands = Arrays.copyOf(commands, size * 2);
+        turtles = Arrays.copyOf(turtles, size * 2);
+        positions = Arrays.copyOf(positions, size * 2 * POSITION_FIELDS);
+      }
+      commands[size] = command;
+      turtles[size] = turtle;
+      positions[size * POSITION_FIELDS] = turtle.getX();
+      positions[size * POSITION_FIELDS + 1] = turtle.getY();
+      positions[size * POSITION_FIELDS + 2] = turtle.getHeading();
+      if(size++ == 0){
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Marks the part as done, so nothing more will be recorded
+   */
+  synchronized void finish(){
+    finished = true;
+    notifyAll();
+  }
+
+  /**
+   * Drops what is recorded and anything recorded later, and lets a part waiting for room carry on
+   */
+  synchronized void close(){
+    closed = true;
+    size = 0;
+    notifyAll();
+  }
+
+  /**
+   * @return true if the log has been closed, so its part should stop
+   */
+  boolean isClosed(){
+    return closed;
+  }
+
+  /**
+   * Reports every recorded command to the controller, oldest first, waiting for more until the
+   * part is done
+   * @param control the controller
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  void replay(Controller control) throws InterruptedException {
+    while(true){
+      Command[] batchCommands;
+      Turtle[] batchTurtles;
+      double[] batchPositions;
+      int count;
+      synchronized (this){
+        while(size == 0 && !finished){
+          wait();
+        }
+        if(size == 0){
+          return;
+        }
+        batchCommands = commands;
+        batchTurtles = turtles;
+        batchPositions = positions;
+        count = size;
+        commands = spareCommands;
+        turtles = spareTurtles;
+        positions = sparePositions;
+        spareCommands = batchCommands;
+        spareTurtles = batchTurtles;
+        sparePositions = batchPositions;
+        size = 0;
+        notifyAll();
+      }
+      for(int k = 0; k < count; k++){
+        control.commandExecuted(batchCommands[k], batchTurtles[k], batchPositions[k * POSITION_FIELDS],
+            batchPositions[k * POSITION_FIELDS + 1], batchPositions[k * POSITION_FIELDS + 2]);
+      }
+    }
+  }
+
+  /**
+   * @return true once the log has room, or has been closed
+   */
+  @Override
+  public synchronized boolean isReleasable(){
+    return size < MOST_KEPT || closed;
+  }
+
+  /**
+   * Waits until the log has room, or has been closed
+   */
+  @Override
+  public synchronized boolean block() throws InterruptedException {
+    while(!isReleasable()){
+      wait();
+    }
+    return true;
+  }
+}
@@ -0,0 +1,1158 @@
+package slogo.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import slogo.controller.Controller;
+import slogo.exceptions.InvalidCommandException;
+import slogo.exceptions.InvalidVariableException;
+import slogo.exceptions.RecursionDepthException;
+import slogo.exceptions.StoppedException;
+import slogo.model.ast.Block;
+import slogo.model.ast.Call;
+import slogo.model.ast.Constant;
+import slogo.model.ast.Definition;
+import slogo.model.ast.Node;
+import slogo.model.ast.Procedure;
+import slogo.model.ast.ProcedureCall;
+import slogo.model.ast.VariableRef;
+import slogo.model.command.BatchCommand;
+import slogo.model.command.Command;
+import slogo.model.command.CommandWithReturningList;
+import slogo.model.command.TurtleSelection;
+
+/**
+ * Runs the trees the CommandCreator builds. Each call has its expressions worked out first,
+ * left to right, and then its command is made and executed against the current turtle, so a
+ * command always sees the turtle as the commands before it left it. Commands that hold lists,
+ * such as repeat and if, hand out the lists to run one at a time and the evaluator runs them.
+ * Every other command is passed to the controller as soon as it has executed so the view can
+ * follow along. Variables are read and set through the slots the parser resolved them to.
+ * A call to a user procedure gets a frame holding its inputs; a tail call replaces the frame of
+ * the call that made it instead of being run inside it, so tail recursion takes constant space.
+ *
+ * Nothing is run by Java recursion. Every block, call and list being worked on is a Task on a
+ * work stack kept on the heap, and the loop in evaluate steps whichever task is on top, so deep
+ * recursion in a program only grows that stack. Its size is capped by the depth limit, and
+ * going past the cap is an ordinary SLogo error rather than a StackOverflowError.
+ *
+ * Every step of that loop is counted. A run stops with an error once it has taken more steps
+ * than the step limit allows, or at the next step after stop is called, which may be from
+ * another thread, so a program running in the background can always be ended. Runs are
+ * numbered when they are submitted, and stop ends every run submitted before it, so a stop
+ * also ends a run that was still waiting its turn to start.
+ *
+ * Tell, ask and askwith pick turtles by id, making them as needed. While more than one is
+ * picked, each turtle command is done by every picked turtle in turn. When many turtles run
+ * the same commands and those commands only move and draw with their own turtle, the turtles
+ * are split between the threads of the common fork join pool instead, and what they did is
+ * reported to the controller in the order the turtles were picked. Their steps are counted
+ * against the run's one step limit. Lists of plain
+ * moves and turns, such as "fd 10 rt 5", are instead done for every picked turtle at once on the
+ * arrays of the TurtleStore.
+ */
+public class Evaluator {
+  public static final int DEFAULT_DEPTH_LIMIT = 1000000;
+  public static final long DEFAULT_STEP_LIMIT = Long.MAX_VALUE;
+
+  private static final String ERROR_PACKAGE = "resources.information.ErrorText";
+  private static final double DEFAULT_RESULT = 0;
+  private static final int NO_SLOT = -1;
+  private static final int FIRST_INDEX = 0;
+  private static final double DEFINED = 1;
+  private static final double[] NO_INPUTS = new double[0];
+  private static final int PARALLEL_TURTLES = 64;
+  private static final int PARTS_PER_THREAD = 4;
+  private static final int POSITION_FIELDS = 3;
+  private static final int STEPS_SHARED_AT = 1024;
+  private static final long NOT_STOPPED = -1;
+
+  private Evaluator owner;
+  private Controller control;
+  private CommandFactory commandFactory;
+  private VariableTable variables;
+  private TurtleTable turtles;
+  private List<Turtle> active;
+  private boolean oneTurtle;
+  private EffectLog effects;
+  private Turtle turtle;
+  private List<Turtle> turtleList;
+  private Deque<Task> tasks;
+  private int depthLimit;
+  private long stepLimit;
+  private long steps;
+  private AtomicLong runSteps;
+  private long sharedSteps;
+  private AtomicLong runsSubmitted;
+  private volatile long stoppedThrough;
+  private long run;
+  private double returned;
+  private double[] frame;
+  private Procedure tailProcedure;
+  private double[] tailFrame;
+  private ResourceBundle errorResources;
+
+  /**
+   * Creates an evaluator that reports executed commands to the given controller
+   * @param controller controller updating the view
+   * @param factory makes the commands named in the tree
+   * @param variableTable holds the user's variables, in the slots the parser gave them
+   */
+  public Evaluator(Controller controller, CommandFactory factory, VariableTable variableTable){
+    owner = this;
+    control = controller;
+    commandFactory = factory;
+    variables = variableTable;
+    turtles = new TurtleTable();
+    active = Collections.emptyList();
+    errorResources = ResourceBundle.getBundle(ERROR_PACKAGE);
+    turtleList = Collections.emptyList();
+    tasks = new ArrayDeque<>();
+    depthLimit = DEFAULT_DEPTH_LIMIT;
+    stepLimit = DEFAULT_STEP_LIMIT;
+    frame = NO_INPUTS;
+    runsSubmitted = new AtomicLong();
+    stoppedThrough = NOT_STOPPED;
+  }
+
+  /**
+   * Creates an evaluator that runs part of a parallel run for the given one. It sees the same
+   * turtles, procedures and frame, but has its own copy of the variables, so loop variables
+   * such as :repcount don't clash, and logs what its commands did instead of reporting it. Its
+   * steps are added to those of the whole run every STEPS_SHARED_AT steps and checked against
+   * the parent's limit, so all the parts together can take no more steps than the parent could.
+   * @param parent the evaluator the run belongs to
+   * @param log where the executed commands are recorded
+   * @param stepsTaken steps taken so far by the parent and every part of the run
+   */
+  private Evaluator(Evaluator parent, EffectLog log, AtomicLong stepsTaken){
+    owner = parent.owner;
+    control = parent.control;
+    commandFactory = parent.commandFactory;
+    variables = parent.variables.copy();
+    turtles = parent.turtles;
+    active = parent.active;
+    oneTurtle = true;
+    effects = log;
+    errorResources = parent.errorResources;
+    turtleList = Collections.emptyList();
+    tasks = new ArrayDeque<>();
+    depthLimit = parent.depthLimit;
+    stepLimit = parent.stepLimit;
+    steps = parent.steps;
+    runSteps = stepsTaken;
+    sharedSteps = steps;
+    frame = parent.frame;
+  }
+
+  /**
+   * Allows the user to pick a turtle to do work on; it becomes the only turtle picked
+   * @param t turtle to become the current turtle
+   */
+  public void setTurtle(Turtle t){
+    turtles.add(t);
+    active = List.of(t);
+    setCurrent(t);
+  }
+
+  /**
+   * @param id id of a turtle
+   * @return the turtle, or null if no turtle has that id
+   */
+  public Turtle getTurtle(double id){
+    return turtles.get(id);
+  }
+
+  /**
+   * Sets the current turtle to a specific position
+   * @param x x position
+   * @param y y position
+   * @param heading degrees facing
+   */
+  public void orientTurtle(double x, double y, double heading){
+    turtle.setX(x);
+    turtle.setY(y);
+    turtle.setHeading(heading);
+  }
+
+  /**
+   * Sets how many blocks, calls and lists may be in progress at once, which bounds how deep
+   * a program can recurse
+   * @param limit the most tasks allowed on the work stack
+   */
+  public void setDepthLimit(int limit){
+    depthLimit = limit;
+  }
+
+  /**
+   * Sets how many steps one run may take before it is stopped with an error
+   * @param limit the most steps allowed in a run
+   */
+  public void setStepLimit(long limit){
+    stepLimit = limit;
+  }
+
+  /**
+   * Numbers a run that will be started later, such as one waiting for a background thread; safe
+   * to call from any thread
+   * @return the run's number, to be given to startRun
+   */
+  public long submitRun(){
+    return runsSubmitted.incrementAndGet();
+  }
+
+  /**
+   * Begins a run submitted earlier: its steps are counted from zero, and it stops at once if
+   * stop was called after it was submitted
+   * @param submitted the number submitRun gave the run
+   */
+  public void startRun(long submitted){
+    steps = 0;
+    run = submitted;
+  }
+
+  /**
+   * Begins a new run that no stop called so far applies to
+   */
+  public void startRun(){
+    startRun(submitRun());
+  }
+
+  /**
+   * Asks the run in progress, and every run submitted but not yet started, to stop at its next
+   * step; safe to call from any thread
+   */
+  public void stop(){
+    stoppedThrough = runsSubmitted.get();
+  }
+
+  /**
+   * Runs a node, and everything under it, to the end
+   * @param node the node to run, such as a whole program
+   * @return the value of the node
+   */
+  public double evaluate(Node node){
+    int base = tasks.size();
+    try {
+      start(node);
+      while(tasks.size() > base){
+        countStep();
+        tasks.peek().step(returned);
+      }
+      return returned;
+    } finally {
+      while(tasks.size() > base){ // only when a command failed part way through
+        tasks.pop().abandon();
+      }
+    }
+  }
+
+  /**
+   * Begins a node: values that need no more work are returned straight away, anything else
+   * becomes a task for the loop in evaluate
+   */
+  private void start(Node node){
+    if(node instanceof Constant){
+      returned = ((Constant) node).getValue();
+    } else if (node instanceof VariableRef){
+      startVariable((VariableRef) node);
+    } else if (node instanceof Call){
+      startCall((Call) node);
+    } else if (node instanceof Block){
+      push(new BlockTask((Block) node));
+    } else if (node instanceof ProcedureCall){
+      push(new ProcedureTask((ProcedureCall) node));
+    } else if (node instanceof Definition){
+      returned = define((Definition) node);
+    }
+  }
+
+  private void setCurrent(Turtle t){
+    turtle = t;
+    turtleList = List.of(t);
+  }
+
+  private void countStep(){
+    if(owner.run <= owner.stoppedThrough || effects != null && effects.isClosed()){
+      throw new StoppedException(new Throwable(), errorResources.getString("Stopped"));
+    }
+    countSteps(1);
+  }
+
+  private void countSteps(long count){
+    steps += count;
+    if(runSteps != null && steps - sharedSteps >= STEPS_SHARED_AT){
+      shareSteps();
+    }
+    if(steps > stepLimit){
+      throw new StoppedException(new Throwable(), errorResources.getString("TooManySteps") + ": " + stepLimit);
+    }
+  }
+
+  /**
+   * Adds the steps this part of a parallel run took since it last did to those of the whole run,
+   * and takes up the whole run's count as its own
+   */
+  private void shareSteps(){
+    steps = runSteps.addAndGet(steps - sharedSteps);
+    sharedSteps = steps;
+  }
+
+  private void push(Task task){
+    if(tasks.size() >= depthLimit){
+      throw new RecursionDepthException(new Throwable(), errorResources.getString("TooDeep") + ": " + depthLimit);
+    }
+    tasks.push(task);
+  }
+
+  private void finish(double value){
+    tasks.pop();
+    returned = value;
+  }
+
+  /**
+   * Gets the value of a variable; a variable holding commands runs them
+   */
+  private void startVariable(VariableRef variable){
+    int slot = variable.getSlot();
+    if(variable.isLocal()){
+      returned = frame[slot];
+    } else if (!variables.isDefined(slot)){
+      throw new InvalidVariableException(new Throwable(), errorResources.getString("FakeVariable") + ": " + variable.getName());
+    } else if (variables.holdsCommands(slot)){
+      push(new BlockTask(variables.getCommands(slot)));
+    } else {
+      returned = variables.getValue(slot);
+    }
+  }
+
+  /**
+   * Constants, variables holding numbers and calls made only of those, such as the sum in
+   * "fd sum :x 1", are worked out here; a call only needs a task of its own if one of its
+   * expressions does
+   */
+  private void startCall(Call call){
+    if(needsEachTurtle(call)){
+      push(new EachTurtleTask(call, active, null));
+      return;
+    }
+    List<Node> arguments = call.getArguments();
+    double[] values = new double[arguments.size()];
+    for(int k = 0; k < values.length; k++){
+      if(!evaluateInline(arguments.get(k))){
+        push(new CallTask(call, values, k));
+        return;
+      }
+      values[k] = returned;
+    }
+    runCommand(call, values);
+  }
+
+  /**
+   * Works out a node on the spot when it needs no task of its own
+   * @return false if the node has to be started as a task instead
+   */
+  private boolean evaluateInline(Node node){
+    if(node instanceof Constant){
+      returned = ((Constant) node).getValue();
+    } else if (node instanceof VariableRef && holdsNumber((VariableRef) node)){
+      startVariable((VariableRef) node);
+    } else if (node instanceof Call && isLeafCall((Call) node)){
+      runLeafCall((Call) node);
+    } else {
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * A turtle command given while several turtles are picked is done by each of them, with its
+   * expressions worked out again for each, so "fd random 50" sends each a different distance
+   */
+  private boolean needsEachTurtle(Call call){
+    return !oneTurtle && active.size() > 1 && commandFactory.usesTurtle(call.getId());
+  }
+
+  private boolean isLeafCall(Call call){
+    if(commandFactory.runsLists(call.getId()) || needsEachTurtle(call)){
+      return false;
+    }
+    for(Node argument : call.getArguments()){
+      if(!(argument instanceof Constant) && !(argument instanceof VariableRef && holdsNumber((VariableRef) argument))){
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void runLeafCall(Call call){
+    List<Node> arguments = call.getArguments();
+    double[] values = new double[arguments.size()];
+    for(int k = 0; k < values.length; k++){
+      start(arguments.get(k));
+      values[k] = returned;
+    }
+    runCommand(call, values);
+  }
+
+  private boolean holdsNumber(VariableRef variable){
+    int slot = variable.getSlot();
+    return variable.isLocal() || (variables.isDefined(slot) && !variables.holdsCommands(slot));
+  }
+
+  /**
+   * Makes and executes the command of a call once its values are known
+   */
+  private void runCommand(Call call, double[] values){
+    Command command = commandFactory.make(call.getId(), turtleList, doubleListToGive(values), blockListToGive(call), stringListToGive(call));
+    if(command instanceof TurtleSelection){
+      push(new SelectionTask((TurtleSelection) command));
+      return;
+    }
+    if(command instanceof CommandWithReturningList){
+      push(new ListsTask((CommandWithReturningList) command));
+      return;
+    }
+    double result = command.execute();
+    setVariables(call, result);
+    report(command);
+    returned = result;
+  }
+
+  /**
+   * Passes an executed command on to the controller with where it left the current turtle, or
+   * logs it when this evaluator is running part of a parallel run
+   */
+  private void report(Command command){
+    if(effects != null){
+      effects.add(command, turtle);
+    } else if (turtle == null){
+      control.commandExecuted(command, null, DEFAULT_RESULT, DEFAULT_RESULT, DEFAULT_RESULT);
+    } else {
+      control.commandExecuted(command, turtle, turtle.getX(), turtle.getY(), turtle.getHeading());
+    }
+  }
+
+  /**
+   * @return the turtle with the given id, made first if there isn't one yet
+   */
+  private Turtle turtleWithId(double id){
+    Turtle t = turtles.get(id);
+    if(t == null){
+      t = control.addTurtle(id);
+      turtles.add(t);
+    }
+    return t;
+  }
+
+  private boolean canRunInParallel(Node node, List<Turtle> picked){
+    if(picked.size() < PARALLEL_TURTLES || ForkJoinPool.getCommonPoolParallelism() <= 1){
+      return false;
+    }
+    Set<Object> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+    distinct.addAll(picked);
+    return distinct.size() == picked.size() && isIndependent(node, Collections.newSetFromMap(new IdentityHashMap<>()));
+  }
+
+  /**
+   * Whether a node can be run for many turtles at once: it may not set variables, define
+   * procedures or pick turtles, and neither may the procedures it calls or the variables of
+   * commands it runs
+   * @param seen procedures and lists of commands already looked at
+   */
+  private boolean isIndependent(Node node, Set<Object> seen){
+    if(node instanceof Block){
+      return allIndependent(((Block) node).getNodes(), seen);
+    } else if (node instanceof VariableRef){
+      VariableRef variable = (VariableRef) node;
+      Block commands = variable.isLocal() ? null : variables.getCommands(variable.getSlot());
+      return commands == null || !seen.add(commands) || isIndependent(commands, seen);
+    } else if (node instanceof Call){
+      Call call = (Call) node;
+      return !commandFactory.selectsTurtles(call.getId()) && call.getVariables().isEmpty()
+          && allIndependent(call.getArguments(), seen) && allIndependent(call.getBlocks(), seen);
+    } else if (node instanceof ProcedureCall){
+      Procedure procedure = ((ProcedureCall) node).getProcedure();
+      Block body = procedure.getBody();
+      return allIndependent(((ProcedureCall) node).getArguments(), seen)
+          && (body == null || !seen.add(procedure) || isIndependent(body, seen));
+    }
+    return !(node instanceof Definition);
+  }
+
+  private boolean allIndependent(List<? extends Node> nodes, Set<Object> seen){
+    for(Node node : nodes){
+      if(!isIndependent(node, seen)){
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Runs a node for each of many turtles at once, in parts on the common fork join pool. Each
+   * part has an evaluator of its own and logs what its turtles did; this thread reports the logs
+   * in order while the parts run, so the view is told the same things in the same order as if
+   * the turtles had run one at a time, and a part still waiting to be started when its turn comes
+   * is run here, reporting as it goes. If a turtle fails, what was done up to its error is
+   * reported, the parts after it are stopped and the error is thrown, though turtles after it
+   * may already have moved.
+   * @param values where each turtle's value of the node is put, or null
+   * @return the value of the node for the last turtle
+   */
+  private double runInParallel(Node node, List<Turtle> picked, double[] values){
+    int count = Math.min(picked.size(), ForkJoinPool.getCommonPoolParallelism() * PARTS_PER_THREAD);
+    AtomicLong stepsTaken = new AtomicLong(steps);
+    List<TurtlePart> parts = new ArrayList<>();
+    for(int k = 0; k < count; k++){
+      parts.add(new TurtlePart(node, picked, values, picked.size() * k / count, picked.size() * (k + 1) / count, stepsTaken));
+    }
+    for(TurtlePart part : parts){
+      part.fork();
+    }
+    double value = DEFAULT_RESULT;
+    try {
+      for(TurtlePart part : parts){
+        part.report();
+        value = part.value;
+      }
+    } finally {
+      for(TurtlePart part : parts){
+        part.drop();
+      }
+      for(TurtlePart part : parts){
+        part.quietlyJoin();
+      }
+      steps = stepsTaken.get();
+    }
+    countSteps(0);
+    return value;
+  }
+
+  /**
+   * Makes the commands of a node that is nothing but moves and turns with plain numbers, such as
+   * "fd 10" or "[ fd 10 rt 5 ]", so they can be done by all the picked turtles at once
+   * @return the commands, or null if the node is anything else
+   */
+  private Command[] makeBatch(Node node, List<Turtle> picked){
+    List<Node> nodes = node instanceof Block ? ((Block) node).getNodes() : List.of(node);
+    if(nodes.isEmpty() || effects != null){
+      return null;
+    }
+    for(Node each : nodes){
+      if(!(each instanceof Call) || !((Call) each).getBlocks().isEmpty() || !((Call) each).getVariables().isEmpty()){
+        return null;
+      }
+      for(Node argument : ((Call) each).getArguments()){
+        if(!(argument instanceof Constant) && !(argument instanceof VariableRef && holdsNumber((VariableRef) argument))){
+          return null;
+        }
+      }
+    }
+    Command[] commands = new Command[nodes.size()];
+    List<Turtle> first = List.of(picked.get(FIRST_INDEX));
+    for(int k = 0; k < commands.length; k++){
+      Call call = (Call) nodes.get(k);
+      double[] values = new double[call.getArguments().size()];
+      for(int j = 0; j < values.length; j++){
+        start(call.getArguments().get(j));
+        values[j] = returned;
+      }
+      commands[k] = commandFactory.make(call.getId(), first, doubleListToGive(values), blockListToGive(call), stringListToGive(call));
+      if(!(commands[k] instanceof BatchCommand)){
+        return null;
+      }
+    }
+    return commands;
+  }
+
+  /**
+   * Gives the rows of the picked turtles in the table's store
+   * @return the rows, or null if a turtle isn't in the table or is picked more than once
+   */
+  private int[] rowsOf(List<Turtle> picked){
+    TurtleStore store = turtles.getStore();
+    int[] rows = new int[picked.size()];
+    BitSet seen = new BitSet(store.size());
+    for(int k = 0; k < rows.length; k++){
+      Turtle t = picked.get(k);
+      if(t.getStore() != store || seen.get(t.getRow())){
+        return null;
+      }
+      rows[k] = t.getRow();
+      seen.set(t.getRow());
+    }
+    return rows;
+  }
+
+  /**
+   * Does each command for every picked turtle at once, in order, keeping where each command left
+   * each turtle. The commands are then reported turtle by turtle, as if each turtle had done
+   * all of them before the next began, which leaves the turtles and the view just as running
+   * the turtles one at a time would, since the commands only move their own turtle.
+   * @param rows the rows of the picked turtles
+   * @return the value of the last command
+   */
+  private double runBatch(Command[] commands, int[] rows, List<Turtle> picked){
+    TurtleStore store = turtles.getStore();
+    double[] positions = new double[rows.length * commands.length * POSITION_FIELDS];
+    for(int k = 0; k < commands.length; k++){
+      ((BatchCommand) commands[k]).executeForAll(store, rows);
+      for(int t = 0; t < rows.length; t++){
+        int at = (t * commands.length + k) * POSITION_FIELDS;
+        positions[at] = store.getX(rows[t]);
+        positions[at + 1] = store.getY(rows[t]);
+        positions[at + 2] = store.getHeading(rows[t]);
+      }
+    }
+    for(int t = 0; t < rows.length; t++){
+      for(int k = 0; k < commands.length; k++){
+        int at = (t * commands.length + k) * POSITION_FIELDS;
+        control.commandExecuted(commands[k], picked.get(t), positions[at], positions[at + 1], positions[at + 2]);
+      }
+    }
+    countSteps((long) rows.length * commands.length);
+    return commands[commands.length - 1].getResult();
+  }
+
+  /**
+   * A command that takes a variable sets it: to the list of commands it was given, which runs
+   * each time the variable is used, or otherwise to its value
+   */
+  private void setVariables(Call call, double value){
+    for(VariableRef variable : call.getVariables()){
+      if(variable.isLocal() && !call.getBlocks().isEmpty()){
+        throw new InvalidVariableException(new Throwable(), errorResources.getString("LocalCommands") + ": " + variable.getName());
+      } else if (variable.isLocal()){
+        frame[variable.getSlot()] = value;
+      } else if (call.getBlocks().isEmpty()){
+        variables.setValue(variable.getSlot(), value);
+      } else {
+        variables.setCommands(variable.getSlot(), call.getBlocks().get(FIRST_INDEX));
+      }
+    }
+  }
+
+  /**
+   * Makes a procedure run the body of its definition from now on
+   * @return one, to show the procedure was defined
+   */
+  private double define(Definition definition){
+    Procedure procedure = definition.getProcedure();
+    procedure.setBody(definition.getBody());
+    control.addUserProcedure(procedure.getName(), definition.toString());
+    return DEFINED;
+  }
+
+  /**
+   * The command classes take their parameters last first, the order the parser used to pop
+   * them off its stacks, so the values are worked out left to right and then handed over reversed
+   */
+  private List<Double> doubleListToGive(double[] values){
+    Double[] doubles = new Double[values.length];
+    for(int k = 0; k < values.length; k++){
+      doubles[values.length - 1 - k] = values[k];
+    }
+    return List.of(doubles);
+  }
+
+  private List<Block> blockListToGive(Call call){
+    List<Block> blocks = call.getBlocks();
+    Block[] reversed = new Block[blocks.size()];
+    for(int k = 0; k < reversed.length; k++){
+      reversed[reversed.length - 1 - k] = blocks.get(k);
+    }
+    return List.of(reversed);
+  }
+
+  private List<String> stringListToGive(Call call){
+    List<VariableRef> variableList = call.getVariables();
+    String[] names = new String[variableList.size()];
+    for(int k = 0; k < names.length; k++){
+      names[names.length - 1 - k] = variableList.get(k).getName();
+    }
+    return List.of(names);
+  }
+
+  /**
+   * One piece of work in progress on the work stack. The loop in evaluate steps the task on
+   * top, passing it the value of whatever the task started last time, until the task finishes
+   * and is popped, handing its own value to the task under it.
+   */
+  private abstract class Task {
+    private List<Node> nodes = Collections.emptyList();
+    private int next;
+
+    /**
+     * Does the next piece of work: starts a node, or finishes
+     * @param value value of the node this task started last, if it started one
+     */
+    abstract void step(double value);
+
+    /**
+     * Puts back anything the task changed, when a command under it has failed
+     */
+    void abandon(){
+    }
+
+    /**
+     * Runs a block inside this task, so a loop body or procedure body doesn't need a task
+     * of its own each time it runs
+     * @param block the block to run
+     */
+    void runBlock(Block block){
+      nodes = block.getNodes();
+      next = 0;
+    }
+
+    /**
+     * Starts the next node of the block being run
+     * @return false once every node has been started
+     */
+    boolean startNext(){
+      if(next == nodes.size()){
+        return false;
+      }
+      start(nodes.get(next++));
+      return true;
+    }
+
+    /**
+     * @param value value of the last node run
+     * @return value of the block that just finished: its last node's, or zero if it was empty
+     */
+    double blockValue(double value){
+      return nodes.isEmpty() ? DEFAULT_RESULT : value;
+    }
+  }
+
+  /**
+   * Runs the nodes of a block in order; its value is the value of the last one
+   */
+  private class BlockTask extends Task {
+
+    BlockTask(Block block){
+      runBlock(block);
+    }
+
+    @Override
+    void step(double value){
+      if(!startNext()){
+        finish(blockValue(value));
+      }
+    }
+  }
+
+  /**
+   * Works out the expressions of a call, left to right, and then runs its command
+   */
+  private class CallTask extends Task {
+    private final Call call;
+    private final List<Node> arguments;
+    private final double[] values;
+    private int next;
+    private boolean waiting;
+
+    CallTask(Call called, double[] valuesSoFar, int firstToWorkOut){
+      call = called;
+      arguments = called.getArguments();
+      values = valuesSoFar;
+      next = firstToWorkOut;
+    }
+
+    @Override
+    void step(double value){
+      if(waiting){
+        values[next++] = value;
+      }
+      while(next < values.length && evaluateInline(arguments.get(next))){
+        values[next++] = returned;
+      }
+      if(next < values.length){
+        waiting = true;
+        start(arguments.get(next));
+      } else {
+        tasks.pop();
+        runCommand(call, values);
+      }
+    }
+  }
+
+  /**
+   * Runs the lists a command hands out, one at a time, setting its loop variable before each
+   * and putting the variable back the way it was afterwards
+   */
+  private class ListsTask extends Task {
+    private final CommandWithReturningList command;
+    private boolean started;
+    private int loopSlot = NO_SLOT;
+    private boolean wasDefined;
+    private double savedValue;
+    private Block savedCommands;
+
+    ListsTask(CommandWithReturningList listCommand){
+      command = listCommand;
+    }
+
+    @Override
+    void step(double value){
+      if(startNext()){
+        return;
+      }
+      Block block = command.nextBlock(started ? blockValue(value) : DEFAULT_RESULT);
+      started = true;
+      if(block == null){
+        abandon();
+        finish(command.getResult());
+        return;
+      }
+      if(command.getLoopVariable() != null){
+        if(loopSlot == NO_SLOT){
+          loopSlot = variables.slotOf(command.getLoopVariable());
+          wasDefined = variables.isDefined(loopSlot);
+          savedValue = variables.getValue(loopSlot);
+          savedCommands = variables.getCommands(loopSlot);
+        }
+        variables.setValue(loopSlot, command.getLoopValue());
+      }
+      runBlock(block);
+      startNext();
+    }
+
+    @Override
+    void abandon(){
+      if(loopSlot == NO_SLOT){
+        return;
+      }
+      if(!wasDefined){
+        variables.remove(loopSlot);
+      } else if (savedCommands != null){
+        variables.setCommands(loopSlot, savedCommands);
+      } else {
+        variables.setValue(loopSlot, savedValue);
+      }
+    }
+  }
+
+  /**
+   * Calls a user procedure with its inputs in a new frame. A tail call only records the
+   * procedure and frame to run next and finishes; the task already running the calling
+   * procedure picks them up once the caller's body has finished, so the work stack doesn't grow.
+   */
+  private class ProcedureTask extends Task {
+    private final ProcedureCall call;
+    private final List<Node> arguments;
+    private final double[] inputs;
+    private Procedure procedure;
+    private double[] callerFrame;
+    private int next;
+    private boolean waiting, running;
+
+    ProcedureTask(ProcedureCall called){
+      call = called;
+      arguments = called.getArguments();
+      inputs = arguments.isEmpty() ? NO_INPUTS : new double[arguments.size()];
+      procedure = called.getProcedure();
+    }
+
+    @Override
+    void step(double value){
+      if(running && !startNext()){
+        returnOrContinue(blockValue(value));
+      }
+      if(running){
+        return;
+      }
+      if(waiting){
+        inputs[next++] = value;
+      }
+      while(next < inputs.length && evaluateInline(arguments.get(next))){
+        inputs[next++] = returned;
+      }
+      if(next < inputs.length){
+        waiting = true;
+        start(arguments.get(next));
+      } else if (call.isTail()){
+        tailProcedure = procedure;
+        tailFrame = inputs;
+        finish(DEFAULT_RESULT);
+      } else {
+        running = true;
+        callerFrame = frame;
+        enter(inputs);
+      }
+    }
+
+    private void returnOrContinue(double value){
+      if(tailProcedure == null){
+        frame = callerFrame;
+        finish(value);
+        return;
+      }
+      procedure = tailProcedure;
+      double[] nextFrame = tailFrame;
+      tailProcedure = null;
+      tailFrame = null;
+      enter(nextFrame);
+    }
+
+    private void enter(double[] procedureFrame){
+      Block body = procedure.getBody();
+      if(body == null){
+        throw new InvalidCommandException(new Throwable(), TokenType.COMMAND.toString(), procedure.getName());
+      }
+      frame = procedureFrame;
+      runBlock(body);
+      startNext();
+    }
+
+    @Override
+    void abandon(){
+      tailProcedure = null;
+      tailFrame = null;
+      if(running){
+        frame = callerFrame;
+      }
+    }
+  }
+
+  /**
+   * Runs a node once for each of the given turtles in turn, with only that turtle current, so a
+   * turtle command or an ask list is done by every picked turtle, in parallel when it can be
+   */
+  private class EachTurtleTask extends Task {
+    private final Node node;
+    private final List<Turtle> picked;
+    private final double[] values;
+    private final Turtle savedTurtle;
+    private final boolean savedOneTurtle;
+    private int next;
+    private double last;
+
+    EachTurtleTask(Node eachNode, List<Turtle> turtlesToRun, double[] valuesFound){
+      node = eachNode;
+      picked = turtlesToRun;
+      values = valuesFound;
+      savedTurtle = turtle;
+      savedOneTurtle = oneTurtle;
+    }
+
+    @Override
+    void step(double value){
+      if(next == 0 && values == null && !picked.isEmpty() && runAsBatch()){
+        next = picked.size();
+      } else if(next == 0 && canRunInParallel(node, picked)){
+        last = runInParallel(node, picked, values);
+        next = picked.size();
+      } else if (next > 0){
+        last = value;
+        if(values != null){
+          values[next - 1] = value;
+        }
+      }
+      if(next == picked.size()){
+        abandon();
+        finish(last);
+        return;
+      }
+      setCurrent(picked.get(next++));
+      oneTurtle = true;
+      start(node);
+    }
+
+    private boolean runAsBatch(){
+      Command[] commands = makeBatch(node, picked);
+      int[] rows = commands == null ? null : rowsOf(picked);
+      if(rows == null){
+        return false;
+      }
+      last = runBatch(commands, rows, picked);
+      return true;
+    }
+
+    @Override
+    void abandon(){
+      if(savedTurtle != null){
+        setCurrent(savedTurtle);
+      }
+      oneTurtle = savedOneTurtle;
+    }
+  }
+
+  /**
+   * Works out the turtles a tell, ask or askwith picks, and then either keeps them picked or has
+   * each of them run the command list before picking the turtles picked before again
+   */
+  private class SelectionTask extends Task {
+    private final TurtleSelection selection;
+    private List<Turtle> picked;
+    private double[] matches;
+    private List<Turtle> savedActive;
+    private Turtle savedTurtle;
+    private boolean waiting, checking, running;
+
+    SelectionTask(TurtleSelection command){
+      selection = command;
+      picked = new ArrayList<>();
+      if(!command.isCondition()){
+        runBlock(command.getSelection());
+      }
+    }
+
+    @Override
+    void step(double value){
+      if(running){
+        abandon();
+        finish(value);
+      } else if (checking){
+        pickMatches();
+      } else if (selection.isCondition()){
+        checking = true;
+        picked = turtles.getTurtles();
+        matches = new double[picked.size()];
+        push(new EachTurtleTask(selection.getSelection(), picked, matches));
+      } else {
+        if(waiting){
+          picked.add(turtleWithId(value));
+        }
+        waiting = startNext();
+        if(!waiting){
+          pick();
+        }
+      }
+    }
+
+    private void pickMatches(){
+      List<Turtle> candidates = picked;
+      picked = new ArrayList<>();
+      for(int k = 0; k < matches.length; k++){
+        if(matches[k] != DEFAULT_RESULT){
+          picked.add(candidates.get(k));
+        }
+      }
+      pick();
+    }
+
+    private void pick(){
+      if(picked.isEmpty()){
+        finish(DEFAULT_RESULT);
+        return;
+      }
+      Turtle lastPicked = picked.get(picked.size() - 1);
+      if(selection.getCommands() == null){
+        active = picked;
+        setCurrent(lastPicked);
+        finish(lastPicked.getId());
+        return;
+      }
+      running = true;
+      savedActive = active;
+      savedTurtle = turtle;
+      active = picked;
+      push(new EachTurtleTask(selection.getCommands(), picked, null));
+    }
+
+    @Override
+    void abandon(){
+      if(running){
+        active = savedActive;
+        setCurrent(savedTurtle);
+      }
+    }
+  }
+
+  /**
+   * One part of a parallel run: a range of the picked turtles, run one after another by an
+   * evaluator of its own, either on the pool or, if the run's thread gets to it first, on that
+   * thread. An error stops the part and is thrown when the part is reported.
+   */
+  private class TurtlePart extends RecursiveAction {
+    private final Node node;
+    private final List<Turtle> picked;
+    private final double[] values;
+    private final int from, to;
+    private final EffectLog log;
+    private final Evaluator helper;
+    private final AtomicBoolean claimed;
+    private double value;
+    private Throwable error;
+
+    TurtlePart(Node partNode, List<Turtle> turtlesToRun, double[] valuesFound, int first, int end, AtomicLong stepsTaken){
+      node = partNode;
+      picked = turtlesToRun;
+      values = valuesFound;
+      from = first;
+      to = end;
+      log = new EffectLog();
+      helper = new Evaluator(Evaluator.this, log, stepsTaken);
+      claimed = new AtomicBoolean();
+    }
+
+    @Override
+    protected void compute(){
+      if(claimed.compareAndSet(false, true)){
+        runTurtles();
+      }
+    }
+
+    /**
+     * Reports what the part did, running it on this thread if no pool thread has started it,
+     * or waiting for it to finish if one has; called by the run's thread
+     */
+    void report(){
+      if(claimed.compareAndSet(false, true)){
+        log.reportTo(control);
+        runTurtles();
+      } else {
+        try {
+          log.replay(control);
+        } catch (InterruptedException e){
+          Thread.currentThread().interrupt();
+          throw new StoppedException(e, errorResources.getString("Stopped"));
+        }
+      }
+      if(error instanceof RuntimeException){
+        throw (RuntimeException) error;
+      } else if (error != null){
+        throw (Error) error;
+      }
+    }
+
+    /**
+     * Keeps the part from starting, or stops it at its next step if it has
+     */
+    void drop(){
+      if(!claimed.compareAndSet(false, true)){
+        log.close();
+      }
+    }
+
+    private void runTurtles(){
+      try {
+        for(int k = from; k < to; k++){
+          helper.setCurrent(picked.get(k));
+          value = helper.evaluate(node);
+          if(values != null){
+            values[k] = value;
+          }
+        }
+      } catch (RuntimeException | Error e){
+        error = e;
+      } finally {
+        helper.shareSteps();
+        log.finish();
+      }
+    }
+  }
+}
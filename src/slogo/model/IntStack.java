@@ -0,0 +1,84 @@
+package slogo.model;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * A growable stack of ints kept in a plain array, so pushing and popping never box
+ * values, allocate, or take a lock the way java.util.Stack does
+ */
+public class IntStack {
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private int[] values;
+  private int size;
+
+  /**
+   * Create an empty stack
+   */
+  public IntStack(){
+    values = new int[DEFAULT_CAPACITY];
+  }
+
+  /**
+   * Put a value on top of the stack
+   * @param value value to push
+   */
+  public void push(int value){
+    if(size == values.length){
+      values = Arrays.copyOf(values, size * 2);
+    }
+    values[size++] = value;
+  }
+
+  /**
+   * Take the value off the top of the stack
+   * @return the top value
+   */
+  public int pop(){
+    if(size == 0){
+      throw new EmptyStackException();
+    }
+    return values[--size];
+  }
+
+  /**
+   * Look at the value on top of the stack without removing it
+   * @return the top value
+   */
+  public int peek(){
+    if(size == 0){
+      throw new EmptyStackException();
+    }
+    return values[size - 1];
+  }
+
+  /**
+   * @return number of values on the stack
+   */
+  public int size(){
+    return size;
+  }
+
+  /**
+   * @return true if there is nothing on the stack
+   */
+  public boolean isEmpty(){
+    return size == 0;
+  }
+
+  /**
+   * Drop values off the top until only the given number are left
+   * @param newSize number of values to keep
+   */
+  public void truncate(int newSize){
+    size = Math.min(size, newSize);
+  }
+
+  /**
+   * Remove every value, keeping the space that has been allocated
+   */
+  public void clear(){
+    size = 0;
+  }
+}
@@ -0,0 +1,92 @@
+package slogo.model;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.ResourceBundle;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the words a user types to canonical command names for one language. The
+ * alternations in the language file (e.g. "forward|fd") are expanded once into a hash table
+ * keyed by the lower-cased alias, so resolving a word is a single probe instead of trying
+ * every pattern in the file. Alternatives that are real regular expressions rather than
+ * plain words are kept as patterns and tried in file order when the table misses.
+ */
+public class KeywordTable {
+  private static final String NO_MATCH = "NO MATCH";
+  private static final String ALTERNATIVE = "\\|";
+  private static final char ESCAPE = '\\';
+  private static final String REGEX_CHARACTERS = ".^$*+?()[]{}|";
+
+  private Map<String, String> aliases;
+  private List<Entry<String, Pattern>> patterns;
+
+  /**
+   * Builds the table for a language file
+   * @param resourcesPackage package holding the language files
+   * @param language name of the language file, such as "English"
+   */
+  public KeywordTable(String resourcesPackage, String language){
+    aliases = new HashMap<>();
+    patterns = new ArrayList<>();
+    ResourceBundle resources = ResourceBundle.getBundle(resourcesPackage + language);
+    for (String key : Collections.list(resources.getKeys())) {   // the order the patterns used to be tried in
+      addAliases(key, resources.getString(key));
+    }
+  }
+
+  /**
+   * Returns the canonical command name for a word the user typed
+   * @param word the word, in any case
+   * @return the command name, such as "Forward", or "NO MATCH"
+   */
+  public String getCommand(String word){
+    String command = aliases.get(word.toLowerCase(Locale.ROOT));
+    if(command != null){
+      return command;
+    }
+    for(Entry<String, Pattern> e : patterns){
+      if(e.getValue().matcher(word).matches()){
+        return e.getKey();
+      }
+    }
+    return NO_MATCH;
+  }
+
+  private void addAliases(String command, String regex){
+    for(String alternative : regex.trim().split(ALTERNATIVE)){
+      String word = literal(alternative);
+      if(word == null){
+        patterns.add(new SimpleEntry<>(command, Pattern.compile(alternative, Pattern.CASE_INSENSITIVE)));
+      } else {
+        aliases.putIfAbsent(word.toLowerCase(Locale.ROOT), command);    // first command in the file wins, as it did with the patterns
+      }
+    }
+  }
+
+  /**
+   * Turns an alternative such as "pendown\?" into the word it matches
+   * @return the word, or null if the alternative uses regular expression features
+   */
+  private String literal(String alternative){
+    StringBuilder word = new StringBuilder();
+    for(int k = 0; k < alternative.length(); k++){
+      char c = alternative.charAt(k);
+      if(c == ESCAPE && k + 1 < alternative.length() && !Character.isLetterOrDigit(alternative.charAt(k + 1))){
+        k++;
+        word.append(alternative.charAt(k));
+      } else if (c == ESCAPE || REGEX_CHARACTERS.indexOf(c) >= 0){
+        return null;
+      } else {
+        word.append(c);
+      }
+    }
+    return word.length() == 0 ? null : word.toString();
+  }
+}
@@ -0,0 +1,234 @@
+package slogo.model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+
+/**
+ * Splits SLogo source into tokens in a single pass over the characters, classifying each
+ * token the same way the regular expressions in Syntax.properties do (Constant, Variable,
+ * Command, ListStart and ListEnd). Comments run from a '#' to the end of the line and are
+ * skipped. Text is pulled from a Reader through a fixed size buffer, so the cost of lexing
+ * is linear in the input and only the token texts that are asked for are allocated.
+ */
+public class Lexer {
+  private static final int BUFFER_SIZE = 8192;
+  private static final int END_OF_INPUT = -1;
+  private static final int NO_TOKEN = -1;
+  private static final char COMMENT = '#';
+  private static final char LIST_START = '[';
+  private static final char LIST_END = ']';
+  private static final char VARIABLE = ':';
+  private static final char NEGATIVE = '-';
+  private static final char DECIMAL = '.';
+  private static final char QUESTION = '?';
+  private static final char UNDERSCORE = '_';
+  private static final String OPERATORS = "*+,-./%~";
+
+  private Reader source;
+  private char[] buffer;
+  private int position, limit;
+  private int tokenStart, tokenEnd;
+  private TokenType tokenType;
+  private boolean exhausted;
+
+  /**
+   * Create a lexer that reads its characters from the given reader
+   * @param reader where the SLogo source comes from
+   */
+  public Lexer(Reader reader){
+    source = reader;
+    buffer = new char[BUFFER_SIZE];
+    tokenStart = NO_TOKEN;
+  }
+
+  /**
+   * Create a lexer over text that is already in memory
+   * @param text the SLogo source
+   */
+  public Lexer(String text){
+    this(new StringReader(text));
+  }
+
+  /**
+   * Moves to the next token in the input
+   * @return the type of the token, or null once the input is used up
+   */
+  public TokenType next(){
+    tokenStart = NO_TOKEN;
+    skipWhitespaceAndComments();
+    int c = peek();
+    if(c == END_OF_INPUT){
+      tokenType = null;
+      return null;
+    }
+    tokenStart = position;
+    position++;
+    if(c == LIST_START){
+      tokenType = TokenType.LIST_START;
+    } else if (c == LIST_END){
+      tokenType = TokenType.LIST_END;
+    } else {
+      while(!isDelimiter(peek())){
+        position++;
+      }
+      tokenType = classify(tokenStart, position);
+    }
+    tokenEnd = position;
+    return tokenType;
+  }
+
+  /**
+   * Gets the type of the current token
+   * @return the token type, or null before the first token and after the last
+   */
+  public TokenType getType(){
+    return tokenType;
+  }
+
+  /**
+   * Gets the text of the current token
+   * @return the characters of the token, such as "fd" or ":x"
+   */
+  public String getText(){
+    return new String(buffer, tokenStart, tokenEnd - tokenStart);
+  }
+
+  private void skipWhitespaceAndComments(){
+    int c = peek();
+    while(c != END_OF_INPUT){
+      if(c == COMMENT){
+        while(c != END_OF_INPUT && c != '\n' && c != '\r'){
+          position++;
+          c = peek();
+        }
+      } else if (Character.isWhitespace(c)){
+        position++;
+        c = peek();
+      } else {
+        return;
+      }
+    }
+  }
+
+  private boolean isDelimiter(int c){
+    return c == END_OF_INPUT || c == LIST_START || c == LIST_END || Character.isWhitespace(c);
+  }
+
+  /**
+   * Runs the token through a small state machine equivalent to the Syntax.properties
+   * patterns:  Constant = -?[0-9]+\.?[0-9]*  Variable = :[a-zA-Z]+  Command = [a-zA-Z_]+(\?)?|[*+-/%~]
+   */
+  private TokenType classify(int start, int end){
+    char first = buffer[start];
+    if(first == VARIABLE){
+      return isVariable(start + 1, end) ? TokenType.VARIABLE : TokenType.ERROR;
+    }
+    if(isConstant(start, end)){
+      return TokenType.CONSTANT;
+    }
+    if(end - start == 1 && OPERATORS.indexOf(first) >= 0){
+      return TokenType.COMMAND;
+    }
+    return isCommandWord(start, end) ? TokenType.COMMAND : TokenType.ERROR;
+  }
+
+  private boolean isVariable(int start, int end){
+    if(start == end){
+      return false;
+    }
+    for(int k = start; k < end; k++){
+      if(!isLetter(buffer[k])){
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isConstant(int start, int end){
+    int k = start;
+    if(buffer[k] == NEGATIVE){
+      k++;
+    }
+    int digitsStart = k;
+    while(k < end && isDigit(buffer[k])){
+      k++;
+    }
+    if(k == digitsStart){
+      return false;
+    }
+    if(k < end && buffer[k] == DECIMAL){
+      k++;
+    }
+    while(k < end && isDigit(buffer[k])){
+      k++;
+    }
+    return k == end;
+  }
+
+  private boolean isCommandWord(int start, int end){
+    if(buffer[end - 1] == QUESTION){
+      end--;
+    }
+    if(start == end){
+      return false;
+    }
+    for(int k = start; k < end; k++){
+      if(!isLetter(buffer[k]) && buffer[k] != UNDERSCORE){
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isLetter(char c){
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private boolean isDigit(char c){
+    return c >= '0' && c <= '9';
+  }
+
+  private int peek(){
+    if(position == limit && !fill()){
+      return END_OF_INPUT;
+    }
+    return buffer[position];
+  }
+
+  /**
+   * Reads more characters into the buffer, keeping the token being scanned (if any)
+   * and growing the buffer only when a single token is larger than it
+   */
+  private boolean fill(){
+    if(exhausted){
+      return false;
+    }
+    int keep = tokenStart == NO_TOKEN ? position : tokenStart;
+    int kept = limit - keep;
+    if(kept == buffer.length){
+      char[] bigger = new char[buffer.length * 2];
+      System.arraycopy(buffer, keep, bigger, 0, kept);
+      buffer = bigger;
+    } else {
+      System.arraycopy(buffer, keep, buffer, 0, kept);
+    }
+    position -= keep;
+    limit = kept;
+    if(tokenStart != NO_TOKEN){
+      tokenStart -= keep;
+    }
+    try {
+      int read = source.read(buffer, limit, buffer.length - limit);
+      if(read <= 0){
+        exhausted = true;
+        return false;
+      }
+      limit += read;
+      return true;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
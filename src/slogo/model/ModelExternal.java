@@ -1,20 +1,28 @@
 package slogo.model;
 
-import java.util.List;
+import java.io.Reader;
 import slogo.controller.Controller;
-import slogo.model.command.Command;
+import slogo.model.ast.Block;
 
 public class ModelExternal implements ModelExternalAPI {
+  private static final String INFORMATION_PACKAGE = "resources.information.";
 
   private CommandCreator creator;
+  private Evaluator evaluator;
+  private VariableTable variables;
+  private ProcedureTable procedures;
 
   /**
    * external model interface implemented, to be given to controller
-   * @param control Controller to be given to the command creator
+   * @param control Controller to be given to the evaluator
    * @param language language the slogo model is working in
    */
   public ModelExternal(Controller control, String language){
-    creator = new CommandCreator(control, language);
+    CommandFactory factory = new CommandFactory(INFORMATION_PACKAGE);
+    variables = new VariableTable();
+    procedures = new ProcedureTable();
+    creator = new CommandCreator(factory, variables, procedures, language);
+    evaluator = new Evaluator(control, factory, variables);
   }
 
   @Override
@@ -25,7 +33,7 @@ public class ModelExternal implements ModelExternalAPI {
    * @param heading degrees fixing
    */
   public void orientTurtle(double x, double y, double heading) {
-    creator.orientTurtle(x, y, heading);
+    evaluator.orientTurtle(x, y, heading);
   }
 
   @Override
@@ -34,7 +42,17 @@ public class ModelExternal implements ModelExternalAPI {
    * @param t the turtle being set
    */
   public void setTurtle(Turtle t){
-    creator.setTurtle(t);
+    evaluator.setTurtle(t);
+  }
+
+  @Override
+  /**
+   * Finds a turtle a program has picked by id
+   * @param id id of the turtle
+   * @return the turtle, or null if no turtle has that id
+   */
+  public Turtle getTurtle(double id){
+    return evaluator.getTurtle(id);
   }
 
   @Override
@@ -48,10 +66,139 @@ public class ModelExternal implements ModelExternalAPI {
 
   @Override
   /**
-   * Receives the commands to be done from the view/UI
+   * Parses the commands from the view/UI without running them
    * @param commands the commands the user typed in
+   * @return the parsed program
    */
-  public List<Command> getCommandsOf(String commands){
+  public Block getCommandsOf(String commands){
     return creator.getCommandsOf(commands);
   }
+
+  /**
+   * Gives the cache of parsed programs, so its hit and miss counts can be read
+   * @return the parse cache
+   */
+  public ParseCache getParseCache(){
+    return creator.getParseCache();
+  }
+
+  @Override
+  /**
+   * Numbers a run to be started later, such as on a background thread, so a stop called before
+   * it starts still ends it; safe to call from any thread
+   * @return the run's number, to be given to execute
+   */
+  public long submitRun(){
+    return evaluator.submitRun();
+  }
+
+  @Override
+  /**
+   * Runs a parsed program against the current turtle
+   * @param commands the parsed program
+   * @return the value of the last command
+   */
+  public double execute(Block commands){
+    return execute(commands, submitRun());
+  }
+
+  @Override
+  /**
+   * Runs a parsed program submitted earlier against the current turtle
+   * @param commands the parsed program
+   * @param run the number submitRun gave the run
+   * @return the value of the last command
+   */
+  public double execute(Block commands, long run){
+    evaluator.startRun(run);
+    return evaluator.evaluate(commands);
+  }
+
+  @Override
+  /**
+   * Runs commands straight from a reader, starting each top level command as soon as it has
+   * been parsed instead of parsing the whole text first
+   * @param commands where the commands are read from
+   */
+  public void execute(Reader commands){
+    execute(commands, submitRun());
+  }
+
+  @Override
+  /**
+   * Runs commands submitted earlier straight from a reader, as execute(Reader) does
+   * @param commands where the commands are read from
+   * @param run the number submitRun gave the run
+   */
+  public void execute(Reader commands, long run){
+    evaluator.startRun(run);
+    creator.parseStatements(commands, statement -> statement.evaluate(evaluator));
+  }
+
+  @Override
+  /**
+   * Checks whether the user has made a variable
+   * @param name name of the variable, including the colon
+   * @return true if the variable holds a value or commands
+   */
+  public boolean hasVariable(String name){
+    return variables.isDefined(name);
+  }
+
+  @Override
+  /**
+   * Makes a variable hold a number, such as one the user typed into the view
+   * @param name name of the variable, including the colon
+   * @param value the number
+   */
+  public void setVariable(String name, double value){
+    variables.setValue(name, value);
+  }
+
+  @Override
+  /**
+   * Makes a variable hold commands, such as ones loaded from a saved workspace
+   * @param name name of the variable, including the colon
+   * @param commands the parsed commands
+   */
+  public void setCommandVariable(String name, Block commands){
+    variables.setCommands(name, commands);
+  }
+
+  @Override
+  /**
+   * Checks whether the user has defined a procedure with "to"
+   * @param name name of the procedure
+   * @return true if the procedure's definition has run
+   */
+  public boolean hasProcedure(String name){
+    return procedures.isDefined(name);
+  }
+
+  @Override
+  /**
+   * Sets how deep programs may recurse before they are stopped with an error
+   * @param limit the most blocks, calls and lists that may be in progress at once
+   */
+  public void setDepthLimit(int limit){
+    evaluator.setDepthLimit(limit);
+  }
+
+  @Override
+  /**
+   * Sets how many steps a run may take before it is stopped with an error
+   * @param limit the most steps allowed in one run
+   */
+  public void setStepLimit(long limit){
+    evaluator.setStepLimit(limit);
+  }
+
+  @Override
+  /**
+   * Stops the run in progress, which may be on another thread, at its next step, along with
+   * any run submitted but not yet started
+   */
+  public void stop(){
+    evaluator.stop();
+  }
 }
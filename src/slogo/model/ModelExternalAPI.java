@@ -1,7 +1,7 @@
 package slogo.model;
 
-import java.util.List;
-import slogo.model.command.Command;
+import java.io.Reader;
+import slogo.model.ast.Block;
 
 /**
  * Author: Alex Oesterling
@@ -11,7 +11,20 @@ import slogo.model.command.Command;
  */
 public interface ModelExternalAPI {
   void setTurtle(Turtle t);
+  Turtle getTurtle(double id);
   void setLanguage(String language);
   void orientTurtle(double x, double y, double heading);
-  List<Command> getCommandsOf(String commands);
+  Block getCommandsOf(String commands);
+  long submitRun();
+  double execute(Block commands);
+  double execute(Block commands, long run);
+  void execute(Reader commands);
+  void execute(Reader commands, long run);
+  boolean hasVariable(String name);
+  void setVariable(String name, double value);
+  void setCommandVariable(String name, Block commands);
+  boolean hasProcedure(String name);
+  void setDepthLimit(int limit);
+  void setStepLimit(long limit);
+  void stop();
 }
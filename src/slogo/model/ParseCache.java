@@ -0,0 +1,134 @@
+package slogo.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import slogo.model.ast.Block;
+
+/**
+ * Remembers the most recently parsed programs so that text submitted again, from the history
+ * pane or a saved command, skips the lexer and parser. Programs are keyed by the language they
+ * were parsed in and their source with whitespace normalized, and the least recently used one
+ * is dropped once the cache is full. Parsed programs never change, so handing the same one out
+ * again is safe.
+ */
+public class ParseCache {
+  public static final int DEFAULT_CAPACITY = 128;
+  private static final char KEY_SEPARATOR = '\u0000';
+  private static final char LINE_BREAK = '\n';
+  private static final char CARRIAGE_RETURN = '\r';
+  private static final char SPACE = ' ';
+
+  private Map<String, Block> programs;
+  private int capacity;
+  private long hits, misses;
+
+  /**
+   * Create a cache holding up to DEFAULT_CAPACITY programs
+   */
+  public ParseCache(){
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Create a cache holding up to the given number of programs
+   * @param maximumPrograms how many programs to keep before dropping the least recently used
+   */
+  public ParseCache(int maximumPrograms){
+    capacity = maximumPrograms;
+    programs = new LinkedHashMap<>(16, 0.75f, true){
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Block> eldest){
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Makes the key a program is stored under
+   * @param language language the program is written in
+   * @param source the program text
+   * @return the key for the program
+   */
+  public String keyOf(String language, String source){
+    return language + KEY_SEPARATOR + normalize(source);
+  }
+
+  /**
+   * Looks up a parsed program, counting a hit or a miss
+   * @param key key made by keyOf
+   * @return the program, or null if it is not in the cache
+   */
+  public synchronized Block get(String key){
+    Block program = programs.get(key);
+    if(program == null){
+      misses++;
+    } else {
+      hits++;
+    }
+    return program;
+  }
+
+  /**
+   * Stores a parsed program
+   * @param key key made by keyOf
+   * @param program the parsed program
+   */
+  public synchronized void put(String key, Block program){
+    programs.put(key, program);
+  }
+
+  /**
+   * Forgets every program, for when something other than the text and language changes how
+   * programs parse
+   */
+  public synchronized void clear(){
+    programs.clear();
+  }
+
+  /**
+   * @return number of programs in the cache
+   */
+  public synchronized int size(){
+    return programs.size();
+  }
+
+  /**
+   * @return number of lookups that found a program
+   */
+  public synchronized long getHits(){
+    return hits;
+  }
+
+  /**
+   * @return number of lookups that did not find a program
+   */
+  public synchronized long getMisses(){
+    return misses;
+  }
+
+  /**
+   * Collapses each run of whitespace to one space, or to one line break if the run has one, so
+   * comments still end where they did, and drops whitespace at either end
+   */
+  private String normalize(String source){
+    StringBuilder text = new StringBuilder(source.length());
+    int k = 0;
+    while(k < source.length()){
+      char c = source.charAt(k);
+      if(Character.isWhitespace(c)){
+        boolean lineBreak = false;
+        while(k < source.length() && Character.isWhitespace(source.charAt(k))){
+          lineBreak |= source.charAt(k) == LINE_BREAK || source.charAt(k) == CARRIAGE_RETURN;
+          k++;
+        }
+        if(text.length() > 0 && k < source.length()){
+          text.append(lineBreak ? LINE_BREAK : SPACE);
+        }
+      } else {
+        text.append(c);
+        k++;
+      }
+    }
+    return text.toString();
+  }
+}
@@ -0,0 +1,87 @@
+package slogo.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import slogo.model.ast.Procedure;
+
+/**
+ * The procedures the user has made with "to", by name. Each name keeps the index it was first
+ * given, so the parser can use the index in place of a command id while it waits for the
+ * procedure's inputs.
+ */
+public class ProcedureTable {
+  public static final int NOT_FOUND = -1;
+
+  private Map<String, Integer> indexes;
+  private List<Procedure> procedures;
+
+  /**
+   * Create a table with no procedures
+   */
+  public ProcedureTable(){
+    indexes = new HashMap<>();
+    procedures = new ArrayList<>();
+  }
+
+  /**
+   * Makes a procedure known to the parser. A procedure defined again with the same number of
+   * inputs stays the same object, so calls already parsed run the new body once it is set; a
+   * different number of inputs makes a new procedure, leaving the old calls with the old one.
+   * @param name name the procedure is called by
+   * @param parameters names of its inputs, including the colons
+   * @return the procedure
+   */
+  public Procedure declare(String name, List<String> parameters){
+    int index = indexOf(name);
+    if(index == NOT_FOUND){
+      indexes.put(name, procedures.size());
+      procedures.add(new Procedure(name, parameters));
+    } else if(procedures.get(index).getParameters().size() != parameters.size()){
+      procedures.set(index, new Procedure(name, parameters));
+    }
+    return procedures.get(indexOf(name));
+  }
+
+  /**
+   * Takes back the latest declare of a name, such as when the definition it came from fails to
+   * parse. Declares are taken back newest first.
+   * @param name name the procedure was declared with
+   * @param previous the procedure the name had before, or null if it had none
+   */
+  public void undeclare(String name, Procedure previous){
+    if(previous == null){
+      indexes.remove(name);
+      procedures.remove(procedures.size() - 1);
+    } else {
+      procedures.set(indexOf(name), previous);
+    }
+  }
+
+  /**
+   * @param name name of a procedure
+   * @return its index, or NOT_FOUND if no procedure has the name
+   */
+  public int indexOf(String name){
+    Integer index = indexes.get(name);
+    return index == null ? NOT_FOUND : index;
+  }
+
+  /**
+   * @param index index of a procedure
+   * @return the procedure
+   */
+  public Procedure get(int index){
+    return procedures.get(index);
+  }
+
+  /**
+   * @param name name of a procedure
+   * @return true if the procedure has been defined, not just parsed
+   */
+  public boolean isDefined(String name){
+    int index = indexOf(name);
+    return index != NOT_FOUND && procedures.get(index).getBody() != null;
+  }
+}
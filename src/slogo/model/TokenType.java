@@ -0,0 +1,29 @@
+package slogo.model;
+
+/**
+ * The kinds of tokens the Lexer can produce, named after the matching
+ * entries in resources/languages/Syntax.properties
+ */
+public enum TokenType {
+  CONSTANT("Constant"),
+  VARIABLE("Variable"),
+  COMMAND("Command"),
+  LIST_START("ListStart"),
+  LIST_END("ListEnd"),
+  ERROR("Syntax");
+
+  private final String name;
+
+  TokenType(String syntaxName){
+    name = syntaxName;
+  }
+
+  /**
+   * Returns the name this token type has in the syntax properties file
+   * @return syntax name, such as "Constant" or "ListStart"
+   */
+  @Override
+  public String toString(){
+    return name;
+  }
+}
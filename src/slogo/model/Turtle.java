@@ -2,16 +2,17 @@ package slogo.model;
 
 import java.util.List;
 
+/**
+ * One turtle: a view over its row of a TurtleStore, which holds its position, heading and pen.
+ * A turtle starts out in a store of its own and moves into the shared store of the TurtleTable
+ * it is added to.
+ */
 public class Turtle{
 
   private static final int DEFAULT_STARTING_X = 0;
   private static final int DEFAULT_STARTING_Y = 0;
-  private static final int DEFAULT_PEN_INDEX = 0;
   private static final int DEFAULT_BG_INDEX = 7;
-  private static final int DEFAULT_SHAPE_INDEX = 0;
-  private static final int DEFAULT_SIZE_PIXELS = 3;
-  private static final int POSITIVE = 1;
-  private static final int NEGATIVE = -1;
+  private static final int OWN_STORE_SIZE = 1;
   private static final int QUAD2_BEGINS = 90;
   private static final int QUAD3_BEGINS = 180;
   private static final int QUAD4_BEGINS = 270;
@@ -21,22 +22,10 @@ public class Turtle{
   private static final double INVISIBLE = 0;
   private static final double DRAWING = 1.0;
   private static final double NOT_DRAWING = 0.0;
-  private static double VIEW_BOUNDS_X;
-  private static double VIEW_BOUNDS_Y;
   private static final List<String> DEFAULT_TURTLE_NAMES = List.of("Alex", "Dana", "Hannah", "Robert", "Tyler");
-  private double xPosition;
-  private double yPosition;
-  private double homeX;
-  private double homeY;
-  private double heading; //define heading as the degrees clockwise from North
-  private double turtleIsDrawing;
-  private double turtleIsVisible;
-  private double penIndex;
-  private double bgIndex;
-  private double shapeIndex;
-  private double sizePixels;
-  private double id;
-  private Double turtleCount;
+  private TurtleStore store;
+  private int row;
+  private TurtleTable table;
   private String name;
 
   /**
@@ -50,11 +39,9 @@ public class Turtle{
    * @param screenHeight the height  of the screen
    */
   public Turtle(String turtleName, double startingXPosition, double startingYPosition, double startingHeading, Double IdOfTurtle, int screenWidth, int screenHeight){
-    id = IdOfTurtle;
-    turtleCount = IdOfTurtle;
-    VIEW_BOUNDS_X = screenWidth;
-    VIEW_BOUNDS_Y = screenHeight;
-    initializeBasicThings(startingXPosition, startingYPosition, startingHeading);
+    store = new TurtleStore(screenWidth, screenHeight, OWN_STORE_SIZE);
+    row = store.add(IdOfTurtle, startingXPosition, startingYPosition, startingHeading);
+    store.setBackground(DEFAULT_BG_INDEX);
     name = turtleName;
   }
 
@@ -68,11 +55,9 @@ public class Turtle{
    * @param screenWidth the width of the screen
    */
   public Turtle(double startingXPosition, double startingYPosition, double startingHeading, Double IdOfTurtle, int screenWidth, int screenHeight){
-    id = IdOfTurtle;
-    turtleCount = IdOfTurtle;
-    VIEW_BOUNDS_X = screenWidth;
-    VIEW_BOUNDS_Y = screenHeight;
-    initializeBasicThings(startingXPosition, startingYPosition, startingHeading);
+    store = new TurtleStore(screenWidth, screenHeight, OWN_STORE_SIZE);
+    row = store.add(IdOfTurtle, startingXPosition, startingYPosition, startingHeading);
+    store.setBackground(DEFAULT_BG_INDEX);
     name = DEFAULT_TURTLE_NAMES.get((int) Math.floor(Math.random()*(DEFAULT_TURTLE_NAMES.size())));
   }
 
@@ -106,17 +91,8 @@ public class Turtle{
    * @param startingHeading the direction/degrees the turtle starts out facing
    */
   public void initializeBasicThings(double startingXPosition, double startingYPosition, double startingHeading){
-    setX(startingXPosition);
-    homeX = xPosition;
-    setY(startingYPosition);
-    homeY = yPosition;
-    heading = startingHeading;
-    turtleIsDrawing = DRAWING;
-    turtleIsVisible = VISIBLE;
-    penIndex = DEFAULT_PEN_INDEX;
-    bgIndex = DEFAULT_BG_INDEX;
-    shapeIndex = DEFAULT_SHAPE_INDEX;
-    sizePixels = DEFAULT_SIZE_PIXELS;
+    store.reset(row, startingXPosition, startingYPosition, startingHeading);
+    store.setBackground(DEFAULT_BG_INDEX);
   }
 
   /**
@@ -126,29 +102,7 @@ public class Turtle{
    * @param distance incoming distance
    */
   public void move(double distance){
-    double theta = heading;
-    int xSign = POSITIVE;
-    int ySign = POSITIVE;
-
-    if(heading>QUAD2_BEGINS && heading<QUAD3_BEGINS){
-      theta = QUAD3_BEGINS - heading;
-      ySign = NEGATIVE;
-    } else if(heading>QUAD3_BEGINS && heading<QUAD4_BEGINS){
-      theta = heading - QUAD3_BEGINS;
-      xSign = NEGATIVE;
-      ySign = NEGATIVE;
-    } else if(heading>QUAD4_BEGINS){
-      theta = QUAD4_ENDS - heading;
-      xSign = NEGATIVE;
-    }
-
-    theta = convertToRadians(theta);
-    setX(xPosition + (xSign * distance * Math.sin(theta)));
-    setY(yPosition + (ySign * distance * Math.cos(theta)));
-  }
-
-  private double convertToRadians(double theta){
-    return theta*Math.PI/QUAD3_BEGINS;
+    store.move(row, distance);
   }
 
   /**
@@ -158,7 +112,7 @@ public class Turtle{
    * @return deltaTheta change in heading
    */
   public double turn(double deltaTheta){
-    heading+=deltaTheta;
+    setHeading(getHeading() + deltaTheta);
     return deltaTheta;
   }
   /**
@@ -201,7 +155,7 @@ public class Turtle{
    * @return difference between the two headings
    */
   public double getDeltaTheta(double theta, double comparisonHeading){
-    double oldHeading = heading;
+    double oldHeading = getHeading();
     comparisonHeading = theta;
     return Math.min(Math.abs(oldHeading-comparisonHeading), QUAD4_ENDS-oldHeading+comparisonHeading);
   }
@@ -211,7 +165,7 @@ public class Turtle{
    * @param degreesCWFromNorth angle to set the heading in DEGREES
    */
   public void setHeading(double degreesCWFromNorth){
-    heading = degreesCWFromNorth;
+    store.setHeading(row, degreesCWFromNorth);
   }
 
   /**
@@ -219,7 +173,7 @@ public class Turtle{
    */
   public double goHome(){
     setHeading(DEFAULT_HEADING);
-    return moveToPosition(homeX, homeY);
+    return moveToPosition(store.getHomeX(row), store.getHomeY(row));
   }
 
   /**
@@ -229,8 +183,8 @@ public class Turtle{
    * @return distance away from point
    */
   public double distanceToPosition(double xPos, double yPos){
-    double deltaX = xPosition - xPos;
-    double deltaY = yPosition - yPos;
+    double deltaX = getX() - xPos;
+    double deltaY = getY() - yPos;
     return Math.sqrt(deltaX*deltaX + deltaY*deltaY);
   }
 
@@ -253,7 +207,7 @@ public class Turtle{
    * @return turtleIsVisible
    */
   public double isTurtleVisible(){
-    return turtleIsVisible;
+    return store.isVisible(row) ? VISIBLE : INVISIBLE;
   }
 
   /**
@@ -261,7 +215,7 @@ public class Turtle{
    * @return pen status
    */
   public double getDrawingStatus(){
-    return turtleIsDrawing;
+    return store.isDrawing(row) ? DRAWING : NOT_DRAWING;
   }
 
   /**
@@ -269,7 +223,7 @@ public class Turtle{
    * @return  heading, in degrees
    */
   public double getHeading(){
-    return heading;
+    return store.getHeading(row);
   }
 
   /**
@@ -277,7 +231,7 @@ public class Turtle{
    * @return the ID of the turtle
    */
   public double getId(){
-    return id;
+    return store.getId(row);
   }
 
   /**
@@ -293,7 +247,34 @@ public class Turtle{
    * @return amount of turtles created thus far
    */
   public Double getTurtleCount(){
-    return turtleCount.doubleValue();
+    return table == null ? getId() : table.size();
+  }
+
+  /**
+   * Called by the table of turtles the turtle is added to, which has copied the turtle's row
+   * into its own store and counts the turtles from then on
+   * @param turtleTable the table
+   * @param tableStore the table's store
+   * @param tableRow the turtle's row in that store
+   */
+  void moveTo(TurtleTable turtleTable, TurtleStore tableStore, int tableRow){
+    table = turtleTable;
+    store = tableStore;
+    row = tableRow;
+  }
+
+  /**
+   * @return the store holding this turtle's state
+   */
+  TurtleStore getStore(){
+    return store;
+  }
+
+  /**
+   * @return this turtle's row in its store
+   */
+  int getRow(){
+    return row;
   }
 
   /**
@@ -301,7 +282,7 @@ public class Turtle{
    * @return xPosition
    */
   public double getX(){
-    return xPosition;
+    return store.getX(row);
   }
 
   /**
@@ -309,7 +290,7 @@ public class Turtle{
    * @return yPos
    */
   public double getY(){
-    return yPosition;
+    return store.getY(row);
   }
 
   /**
@@ -317,7 +298,7 @@ public class Turtle{
    * @return the index of the color
    */
   public double getPenColor(){
-    return penIndex;
+    return store.getPenColor(row);
   }
 
   /**
@@ -325,7 +306,7 @@ public class Turtle{
    * @return the index of the shape
    */
   public double getShape(){
-    return shapeIndex;
+    return store.getShape(row);
   }
 
   /**
@@ -333,11 +314,7 @@ public class Turtle{
    * @param penStatus true if penDown (drawing), false if penUp (not drawing)
    */
   public void setDrawing(double penStatus){
-    if(penStatus!=0.0){
-      turtleIsDrawing = DRAWING;
-    } else {
-      turtleIsDrawing = NOT_DRAWING;
-    }
+    store.setDrawing(row, penStatus != NOT_DRAWING);
   }
 
   /**
@@ -345,11 +322,7 @@ public class Turtle{
    * @param visibility true if the turtle can be seen, false otherwise
    */
   public void setVisibility(double visibility){
-    if(visibility!=0.0){
-      turtleIsVisible = VISIBLE;
-    } else {
-      turtleIsVisible = INVISIBLE;
-    }
+    store.setVisible(row, visibility != INVISIBLE);
   }
 
   /**
@@ -365,12 +338,7 @@ public class Turtle{
    * @param newXPosition value to set xPosition to
    */
   public void setX(double newXPosition){
-    xPosition = newXPosition;
-    if(xPosition < -VIEW_BOUNDS_X/2){
-      xPosition = -VIEW_BOUNDS_X/2;
-    } else if (xPosition > VIEW_BOUNDS_X/2){
-      xPosition = VIEW_BOUNDS_X/2;
-    }
+    store.setX(row, newXPosition);
   }
 
   /**
@@ -378,12 +346,7 @@ public class Turtle{
    * @param newYPosition value to set yPosition to
    */
   public void setY(double newYPosition){
-    yPosition = newYPosition;
-    if(yPosition < -VIEW_BOUNDS_Y/2){
-      yPosition = -VIEW_BOUNDS_Y/2;
-    } else if (yPosition > VIEW_BOUNDS_Y/2){
-      yPosition = VIEW_BOUNDS_Y/2;
-    }
+    store.setY(row, newYPosition);
   }
 
   /**
@@ -391,7 +354,7 @@ public class Turtle{
    * @param index the index to change to
    */
   public void setPenColor(Double index){
-    penIndex = index;
+    store.setPenColor(row, index);
   }
 
   /**
@@ -399,7 +362,7 @@ public class Turtle{
    * @param index the index to change to
    */
   public void setShape(Double index){
-    shapeIndex = index;
+    store.setShape(row, index);
   }
 
   /**
@@ -407,7 +370,7 @@ public class Turtle{
    * @param index the index of the color to change to
    */
   public void setBackground(Double index){
-    bgIndex = index;
+    store.setBackground(index);
   }
 
   /**
@@ -415,7 +378,7 @@ public class Turtle{
    * @param pixels the size to set the pen to
    */
   public void setPenSize(Double pixels){
-    sizePixels = pixels;
+    store.setPenSize(row, pixels);
   }
 
 }
\ No newline at end of file
@@ -0,0 +1,418 @@
+package slogo.model;
+
+import java.util.Arrays;
+
+/**
+ * The state of many turtles kept in parallel arrays of numbers, one row per turtle, instead of
+ * one object per turtle full of fields. A Turtle is a view over one row. Keeping every x next to
+ * the other x's makes a turtle cost a few dozen bytes and lets code that moves many turtles at
+ * once walk the arrays in order.
+ *
+ * Positions are kept within the bounds of the view, centered on the origin, as a turtle's always
+ * have been. Rows are never removed.
+ *
+ * Moves and turns can be done for many rows in one call. These batch versions give exactly the
+ * results of moving each turtle in turn, but work out the sine and cosine of a heading only once
+ * for a run of turtles facing the same way, which turtles told to do the same thing usually are.
+ */
+public class TurtleStore {
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final byte DRAWING = 1;
+  private static final byte VISIBLE = 2;
+  private static final double DEFAULT_PEN_INDEX = 0;
+  private static final double DEFAULT_SHAPE_INDEX = 0;
+  private static final double DEFAULT_SIZE_PIXELS = 3;
+  private static final double HALF = 2;
+  private static final int POSITIVE = 1;
+  private static final int NEGATIVE = -1;
+  private static final int QUAD2_BEGINS = 90;
+  private static final int QUAD3_BEGINS = 180;
+  private static final int QUAD4_BEGINS = 270;
+  private static final int QUAD4_ENDS = 360;
+
+  private double[] ids;
+  private double[] xs;
+  private double[] ys;
+  private double[] headings;
+  private double[] homeXs;
+  private double[] homeYs;
+  private double[] penColors;
+  private double[] shapes;
+  private double[] penSizes;
+  private byte[] flags;
+  private double halfWidth;
+  private double halfHeight;
+  private double background;
+  private int size;
+
+  /**
+   * Create a store with no turtles
+   * @param screenWidth width of the view the turtles stay inside
+   * @param screenHeight height of the view the turtles stay inside
+   */
+  public TurtleStore(double screenWidth, double screenHeight){
+    this(screenWidth, screenHeight, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Create a store with no turtles and room for the given number before it has to grow
+   * @param screenWidth width of the view the turtles stay inside
+   * @param screenHeight height of the view the turtles stay inside
+   * @param capacity how many turtles to make room for
+   */
+  public TurtleStore(double screenWidth, double screenHeight, int capacity){
+    setBounds(screenWidth, screenHeight);
+    ids = new double[capacity];
+    xs = new double[capacity];
+    ys = new double[capacity];
+    headings = new double[capacity];
+    homeXs = new double[capacity];
+    homeYs = new double[capacity];
+    penColors = new double[capacity];
+    shapes = new double[capacity];
+    penSizes = new double[capacity];
+    flags = new byte[capacity];
+  }
+
+  /**
+   * Adds a turtle with the pen down, showing, and the default color, shape and pen size. Its
+   * starting position, kept within bounds, is its home.
+   * @param id id of the turtle
+   * @param x starting x position
+   * @param y starting y position
+   * @param heading starting heading
+   * @return the row of the new turtle
+   */
+  public int add(double id, double x, double y, double heading){
+    int row = newRow();
+    ids[row] = id;
+    reset(row, x, y, heading);
+    return row;
+  }
+
+  /**
+   * Starts a turtle over at a new position, which becomes its home, with the pen down, showing,
+   * and the default color, shape and pen size
+   * @param row row of the turtle
+   * @param x x position
+   * @param y y position
+   * @param heading heading
+   */
+  public void reset(int row, double x, double y, double heading){
+    setX(row, x);
+    setY(row, y);
+    homeXs[row] = xs[row];
+    homeYs[row] = ys[row];
+    headings[row] = heading;
+    penColors[row] = DEFAULT_PEN_INDEX;
+    shapes[row] = DEFAULT_SHAPE_INDEX;
+    penSizes[row] = DEFAULT_SIZE_PIXELS;
+    flags[row] = DRAWING | VISIBLE;
+  }
+
+  /**
+   * Adds a copy of a turtle kept in another store; this store takes that store's bounds, since
+   * both are for the same view
+   * @param other the store holding the turtle
+   * @param otherRow the turtle's row there
+   * @return the row of the copy
+   */
+  public int copy(TurtleStore other, int otherRow){
+    int row = newRow();
+    ids[row] = other.ids[otherRow];
+    xs[row] = other.xs[otherRow];
+    ys[row] = other.ys[otherRow];
+    headings[row] = other.headings[otherRow];
+    homeXs[row] = other.homeXs[otherRow];
+    homeYs[row] = other.homeYs[otherRow];
+    penColors[row] = other.penColors[otherRow];
+    shapes[row] = other.shapes[otherRow];
+    penSizes[row] = other.penSizes[otherRow];
+    flags[row] = other.flags[otherRow];
+    halfWidth = other.halfWidth;
+    halfHeight = other.halfHeight;
+    return row;
+  }
+
+  /**
+   * Sets the size of the view the turtles stay inside; turtles already outside it stay put
+   * until they next move
+   * @param screenWidth width of the view
+   * @param screenHeight height of the view
+   */
+  public void setBounds(double screenWidth, double screenHeight){
+    halfWidth = screenWidth / HALF;
+    halfHeight = screenHeight / HALF;
+  }
+
+  /**
+   * @return how many turtles are in the store
+   */
+  public int size(){
+    return size;
+  }
+
+  /**
+   * @param row row of a turtle
+   * @return id of the turtle in the row
+   */
+  public double getId(int row){
+    return ids[row];
+  }
+
+  /**
+   * @param row row of a turtle
+   * @return x position of the turtle in the row
+   */
+  public double getX(int row){
+    return xs[row];
+  }
+
+  /**
+   * @param row row of a turtle
+   * @return y position of the turtle in the row
+   */
+  public double getY(int row){
+    return ys[row];
+  }
+
+  /**
+   * @param row row of a turtle
+   * @return heading of the turtle in the row, in degrees clockwise from north
+   */
+  public double getHeading(int row){
+    return headings[row];
+  }
+
+  /**
+   * @param row row of a turtle
+   * @return x position the turtle in the row goes home to
+   */
+  public double getHomeX(int row){
+    return homeXs[row];
+  }
+
+  /**
+   * @param row row of a turtle
+   * @return y position the turtle in the row goes home to
+   */
+  public double getHomeY(int row){
+    return homeYs[row];
+  }
+
+  /**
+   * @param row row of a turtle
+   * @return pen color index of the turtle in the row
+   */
+  public double getPenColor(int row){
+    return penColors[row];
+  }
+
+  /**
+   * @param row row of a turtle
+   * @return shape index of the turtle in the row
+   */
+  public double getShape(int row){
+    return shapes[row];
+  }
+
+  /**
+   * @param row row of a turtle
+   * @return pen size of the turtle in the row, in pixels
+   */
+  public double getPenSize(int row){
+    return penSizes[row];
+  }
+
+  /**
+   * @param row row of a turtle
+   * @return true if the turtle's pen is down
+   */
+  public boolean isDrawing(int row){
+    return (flags[row] & DRAWING) != 0;
+  }
+
+  /**
+   * @param row row of a turtle
+   * @return true if the turtle is showing
+   */
+  public boolean isVisible(int row){
+    return (flags[row] & VISIBLE) != 0;
+  }
+
+  /**
+   * @return the background color index last set by any turtle
+   */
+  public double getBackground(){
+    return background;
+  }
+
+  /**
+   * Sets a turtle's x position, keeping it within the bounds of the view
+   * @param row row of the turtle
+   * @param x the new x position
+   */
+  public void setX(int row, double x){
+    xs[row] = clamp(x, halfWidth);
+  }
+
+  /**
+   * Sets a turtle's y position, keeping it within the bounds of the view
+   * @param row row of the turtle
+   * @param y the new y position
+   */
+  public void setY(int row, double y){
+    ys[row] = clamp(y, halfHeight);
+  }
+
+  /**
+   * @param row row of the turtle
+   * @param heading degrees clockwise from north
+   */
+  public void setHeading(int row, double heading){
+    headings[row] = heading;
+  }
+
+  /**
+   * @param row row of the turtle
+   * @param index pen color index
+   */
+  public void setPenColor(int row, double index){
+    penColors[row] = index;
+  }
+
+  /**
+   * @param row row of the turtle
+   * @param index shape index
+   */
+  public void setShape(int row, double index){
+    shapes[row] = index;
+  }
+
+  /**
+   * @param row row of the turtle
+   * @param pixels pen size in pixels
+   */
+  public void setPenSize(int row, double pixels){
+    penSizes[row] = pixels;
+  }
+
+  /**
+   * @param row row of the turtle
+   * @param drawing true to put the pen down, false to lift it
+   */
+  public void setDrawing(int row, boolean drawing){
+    flags[row] = (byte) (drawing ? flags[row] | DRAWING : flags[row] & ~DRAWING);
+  }
+
+  /**
+   * @param row row of the turtle
+   * @param visible true to show the turtle, false to hide it
+   */
+  public void setVisible(int row, boolean visible){
+    flags[row] = (byte) (visible ? flags[row] | VISIBLE : flags[row] & ~VISIBLE);
+  }
+
+  /**
+   * @param index background color index
+   */
+  public void setBackground(double index){
+    background = index;
+  }
+
+  /**
+   * Moves a turtle along its heading, working out the quadrant it faces so the sine and cosine
+   * are of an angle within it
+   * @param row row of the turtle
+   * @param distance how far to move; negative moves backwards
+   */
+  public void move(int row, double distance){
+    double heading = headings[row];
+    double theta = angleInQuadrant(heading);
+    setX(row, xs[row] + (xSign(heading) * distance * Math.sin(theta)));
+    setY(row, ys[row] + (ySign(heading) * distance * Math.cos(theta)));
+  }
+
+  /**
+   * Moves the turtles in the given rows along their headings, in order, exactly as moving each
+   * with move would
+   * @param rows rows of the turtles; a row given twice moves twice
+   * @param distance how far to move; negative moves backwards
+   */
+  public void moveAll(int[] rows, double distance){
+    double lastHeading = Double.NaN;
+    double dx = 0;
+    double dy = 0;
+    for(int row : rows){
+      double heading = headings[row];
+      if(heading != lastHeading){
+        double theta = angleInQuadrant(heading);
+        dx = xSign(heading) * distance * Math.sin(theta);
+        dy = ySign(heading) * distance * Math.cos(theta);
+        lastHeading = heading;
+      }
+      xs[row] = clamp(xs[row] + dx, halfWidth);
+      ys[row] = clamp(ys[row] + dy, halfHeight);
+    }
+  }
+
+  /**
+   * Turns the turtles in the given rows by the same amount, exactly as turning each in turn would
+   * @param rows rows of the turtles; a row given twice turns twice
+   * @param degrees how far to turn clockwise; negative turns counterclockwise
+   */
+  public void turnAll(int[] rows, double degrees){
+    for(int row : rows){
+      headings[row] += degrees;
+    }
+  }
+
+  /**
+   * @return the heading as an angle from the nearest vertical axis, in radians
+   */
+  private static double angleInQuadrant(double heading){
+    double theta = heading;
+    if(heading>QUAD2_BEGINS && heading<QUAD3_BEGINS){
+      theta = QUAD3_BEGINS - heading;
+    } else if(heading>QUAD3_BEGINS && heading<QUAD4_BEGINS){
+      theta = heading - QUAD3_BEGINS;
+    } else if(heading>QUAD4_BEGINS){
+      theta = QUAD4_ENDS - heading;
+    }
+    return theta*Math.PI/QUAD3_BEGINS;
+  }
+
+  private static int xSign(double heading){
+    return heading>QUAD3_BEGINS && heading!=QUAD4_BEGINS ? NEGATIVE : POSITIVE;
+  }
+
+  private static int ySign(double heading){
+    return heading>QUAD2_BEGINS && heading<QUAD4_BEGINS && heading!=QUAD3_BEGINS ? NEGATIVE : POSITIVE;
+  }
+
+  private double clamp(double value, double half){
+    if(value < -half){
+      return -half;
+    } else if (value > half){
+      return half;
+    }
+    return value;
+  }
+
+  private int newRow(){
+    if(size == ids.length){
+      int capacity = Math.max(DEFAULT_CAPACITY, size * 2);
+      ids = Arrays.copyOf(ids, capacity);
+      xs = Arrays.copyOf(xs, capacity);
+      ys = Arrays.copyOf(ys, capacity);
+      headings = Arrays.copyOf(headings, capacity);
+      homeXs = Arrays.copyOf(homeXs, capacity);
+      homeYs = Arrays.copyOf(homeYs, capacity);
+      penColors = Arrays.copyOf(penColors, capacity);
+      shapes = Arrays.copyOf(shapes, capacity);
+      penSizes = Arrays.copyOf(penSizes, capacity);
+      flags = Arrays.copyOf(flags, capacity);
+    }
+    return size++;
+  }
+}
@@ -0,0 +1,98 @@
+package slogo.model;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every turtle made so far, by id. The turtles' state is kept in one TurtleStore, a row each in
+ * the order they were added, and a turtle added here moves its state into that store. Turtles
+ * are handed out in order of id, which is the order askwith checks them in, so running a program
+ * picks the same turtles every time.
+ *
+ * Programs usually number their turtles 1, 2, 3 and so on, so the turtle with id n is looked for
+ * in row n - 1 first; only turtles numbered some other way are kept in a map.
+ */
+public class TurtleTable {
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final int FIRST_ID = 1;
+
+  private TurtleStore store;
+  private Turtle[] turtles;
+  private Map<Double, Integer> otherRows;
+  private boolean inIdOrder;
+
+  /**
+   * Create a table with no turtles
+   */
+  public TurtleTable(){
+    store = new TurtleStore(0, 0);
+    turtles = new Turtle[DEFAULT_CAPACITY];
+    otherRows = new HashMap<>();
+    inIdOrder = true;
+  }
+
+  /**
+   * Adds a turtle, unless one with its id is already in the table
+   * @param turtle the turtle
+   */
+  public void add(Turtle turtle){
+    double id = turtle.getId();
+    if(get(id) != null){
+      return;
+    }
+    int size = store.size();
+    if(size > 0 && id < store.getId(size - 1)){
+      inIdOrder = false;
+    }
+    int row = store.copy(turtle.getStore(), turtle.getRow());
+    if(row == turtles.length){
+      turtles = Arrays.copyOf(turtles, row * 2);
+    }
+    turtles[row] = turtle;
+    if(id != row + FIRST_ID){
+      otherRows.put(id, row);
+    }
+    turtle.moveTo(this, store, row);
+  }
+
+  /**
+   * @param id id of a turtle
+   * @return the turtle, or null if there is none with that id yet
+   */
+  public Turtle get(double id){
+    int row = (int) id - FIRST_ID;
+    if(row >= 0 && row < store.size() && store.getId(row) == id){
+      return turtles[row];
+    }
+    Integer other = otherRows.get(id);
+    return other == null ? null : turtles[other];
+  }
+
+  /**
+   * @return every turtle, in order of id
+   */
+  public List<Turtle> getTurtles(){
+    Turtle[] inOrder = Arrays.copyOf(turtles, store.size());
+    if(!inIdOrder){
+      Arrays.sort(inOrder, Comparator.comparingDouble(Turtle::getId));
+    }
+    return Arrays.asList(inOrder);
+  }
+
+  /**
+   * @return the store holding the state of every turtle in the table
+   */
+  public TurtleStore getStore(){
+    return store;
+  }
+
+  /**
+   * @return how many turtles have been made
+   */
+  public int size(){
+    return store.size();
+  }
+}
@@ -0,0 +1,173 @@
+package slogo.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import slogo.model.ast.Block;
+
+/**
+ * The user's variables, each kept in a numbered slot. The parser turns every :name it sees
+ * into its slot once, so running a program reads and writes plain arrays instead of hashing
+ * the name on every use. A slot holds either a number or, for a variable made from a
+ * [ list ], the commands to run. The name lookups are only for the controller, the view and
+ * saved workspaces, which still refer to variables by name.
+ */
+public class VariableTable {
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private Map<String, Integer> slots;
+  private String[] names;
+  private double[] values;
+  private Block[] commands;
+  private boolean[] defined;
+  private int size;
+
+  /**
+   * Create a table with no variables
+   */
+  public VariableTable(){
+    slots = new HashMap<>();
+    names = new String[DEFAULT_CAPACITY];
+    values = new double[DEFAULT_CAPACITY];
+    commands = new Block[DEFAULT_CAPACITY];
+    defined = new boolean[DEFAULT_CAPACITY];
+  }
+
+  /**
+   * Gets the slot of a variable, giving it a new one the first time the name is seen
+   * @param name name of the variable, including the colon
+   * @return the slot
+   */
+  public int slotOf(String name){
+    Integer slot = slots.get(name);
+    if(slot == null){
+      slot = addSlot(name);
+    }
+    return slot;
+  }
+
+  /**
+   * @param slot slot of a variable
+   * @return name of the variable, including the colon
+   */
+  public String nameOf(int slot){
+    return names[slot];
+  }
+
+  /**
+   * @param slot slot of a variable
+   * @return true if the variable has been given a value or commands
+   */
+  public boolean isDefined(int slot){
+    return defined[slot];
+  }
+
+  /**
+   * @param slot slot of a variable
+   * @return true if the variable holds commands rather than a number
+   */
+  public boolean holdsCommands(int slot){
+    return commands[slot] != null;
+  }
+
+  /**
+   * @param slot slot of a variable
+   * @return the number the variable holds
+   */
+  public double getValue(int slot){
+    return values[slot];
+  }
+
+  /**
+   * @param slot slot of a variable
+   * @return the commands the variable holds, or null if it holds a number
+   */
+  public Block getCommands(int slot){
+    return commands[slot];
+  }
+
+  /**
+   * Makes a variable hold a number
+   * @param slot slot of the variable
+   * @param value the number
+   */
+  public void setValue(int slot, double value){
+    values[slot] = value;
+    commands[slot] = null;
+    defined[slot] = true;
+  }
+
+  /**
+   * Makes a variable hold commands, which run each time the variable is used
+   * @param slot slot of the variable
+   * @param block the commands
+   */
+  public void setCommands(int slot, Block block){
+    commands[slot] = block;
+    defined[slot] = true;
+  }
+
+  /**
+   * Makes a variable undefined again; its slot is kept
+   * @param slot slot of the variable
+   */
+  public void remove(int slot){
+    commands[slot] = null;
+    defined[slot] = false;
+  }
+
+  /**
+   * @param name name of a variable, including the colon
+   * @return true if the variable has been given a value or commands
+   */
+  public boolean isDefined(String name){
+    Integer slot = slots.get(name);
+    return slot != null && defined[slot];
+  }
+
+  /**
+   * Makes a variable hold a number
+   * @param name name of the variable, including the colon
+   * @param value the number
+   */
+  public void setValue(String name, double value){
+    setValue(slotOf(name), value);
+  }
+
+  /**
+   * Makes a variable hold commands
+   * @param name name of the variable, including the colon
+   * @param block the commands
+   */
+  public void setCommands(String name, Block block){
+    setCommands(slotOf(name), block);
+  }
+
+  /**
+   * Makes a table with the same variables in the same slots, which can then be changed without
+   * changing this one, such as by a loop run for one turtle at the same time as another
+   * @return the copy
+   */
+  public VariableTable copy(){
+    VariableTable table = new VariableTable();
+    table.slots = new HashMap<>(slots);
+    table.names = names.clone();
+    table.values = values.clone();
+    table.commands = commands.clone();
+    table.defined = defined.clone();
+    table.size = size;
+    return table;
+  }
+
+  private int addSlot(String name){
+    if(size == names.length){
+      names = Arrays.copyOf(names, size * 2);
+      values = Arrays.copyOf(values, size * 2);
+      commands = Arrays.copyOf(commands, size * 2);
+      defined = Arrays.copyOf(defined, size * 2);
+    }
+    names[size] = name;
+    slots.put(name, size);
+    return size++;
+  }
+}
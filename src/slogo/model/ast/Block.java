@@ -0,0 +1,50 @@
+package slogo.model.ast;
+
+import java.util.List;
+
+/**
+ * A list of nodes run one after another: a whole program, or the contents of a [ list ]
+ */
+public class Block extends Node {
+
+  private static final String SEPARATOR = " ";
+
+  private final List<Node> nodes;
+
+  /**
+   * @param statements the nodes in the order they are run
+   */
+  public Block(List<Node> statements){
+    nodes = List.copyOf(statements);
+  }
+
+  /**
+   * @return the nodes in the order they are run
+   */
+  public List<Node> getNodes(){
+    return nodes;
+  }
+
+  /**
+   * @return true if there is nothing to run
+   */
+  public boolean isEmpty(){
+    return nodes.isEmpty();
+  }
+
+  /**
+   * Writes the block back out as source text, without the surrounding brackets
+   * @return text that parses back into the same block
+   */
+  @Override
+  public String toString(){
+    StringBuilder text = new StringBuilder();
+    for(Node node : nodes){
+      if(text.length() > 0){
+        text.append(SEPARATOR);
+      }
+      text.append(node);
+    }
+    return text.toString();
+  }
+}
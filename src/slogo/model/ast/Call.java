@@ -0,0 +1,86 @@
+package slogo.model.ast;
+
+import java.util.List;
+
+/**
+ * A command together with everything it was given: the expressions for its doubles, the
+ * [ lists ] it takes and the variables it sets. The command object itself is
+ * only made when the call is run, once the expressions have values.
+ */
+public class Call extends Node {
+
+  private static final String SEPARATOR = " ";
+  private static final String LIST_START = "[ ";
+  private static final String LIST_END = " ]";
+
+  private final int id;
+  private final String name;
+  private final List<Node> arguments;
+  private final List<Block> blocks;
+  private final List<VariableRef> variables;
+
+  /**
+   * @param commandId id the CommandFactory gave the command
+   * @param word the word that was typed for the command, such as "fd"
+   * @param argumentList expressions for the doubles the command takes, in the order they were typed
+   * @param blockList the lists the command takes, in the order they were typed
+   * @param variableList the variables the command sets
+   */
+  public Call(int commandId, String word, List<Node> argumentList, List<Block> blockList, List<VariableRef> variableList){
+    id = commandId;
+    name = word;
+    arguments = List.copyOf(argumentList);
+    blocks = List.copyOf(blockList);
+    variables = List.copyOf(variableList);
+  }
+
+  /**
+   * @return id the CommandFactory gave the command
+   */
+  public int getId(){
+    return id;
+  }
+
+  /**
+   * @return the word that was typed for the command
+   */
+  public String getName(){
+    return name;
+  }
+
+  /**
+   * @return expressions for the doubles the command takes, in the order they were typed
+   */
+  public List<Node> getArguments(){
+    return arguments;
+  }
+
+  /**
+   * @return the lists the command takes, in the order they were typed
+   */
+  public List<Block> getBlocks(){
+    return blocks;
+  }
+
+  /**
+   * @return the variables the command sets
+   */
+  public List<VariableRef> getVariables(){
+    return variables;
+  }
+
+  @Override
+  public String toString(){
+    StringBuilder text = new StringBuilder(name);
+    for(VariableRef variable : variables){
+      text.append(SEPARATOR).append(variable);
+    }
+    for(Node argument : arguments){
+      text.append(SEPARATOR).append(argument);
+    }
+    for(Block block : blocks){
+      text.append(SEPARATOR).append(LIST_START).append(block).append(LIST_END);
+    }
+    return text.toString();
+  }
+}
@@ -0,0 +1,30 @@
+package slogo.model.ast;
+
+import java.math.BigDecimal;
+
+/**
+ * A number typed straight into the program, such as the 50 in "fd 50"
+ */
+public class Constant extends Node {
+
+  private final double value;
+
+  /**
+   * @param number the value of the constant
+   */
+  public Constant(double number){
+    value = number;
+  }
+
+  /**
+   * @return the value of the constant
+   */
+  public double getValue(){
+    return value;
+  }
+
+  @Override
+  public String toString(){
+    return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+  }
+}
@@ -0,0 +1,61 @@
+package slogo.model.ast;
+
+import java.util.List;
+
+/**
+ * A "to" command: running it makes its procedure run the given body from then on
+ */
+public class Definition extends Node {
+
+  private static final String SEPARATOR = " ";
+  private static final String LIST_START = "[ ";
+  private static final String LIST_END = " ]";
+  private static final String EMPTY_LIST = "[ ]";
+
+  private final String word;
+  private final Procedure procedure;
+  private final List<String> parameters;
+  private final Block body;
+
+  /**
+   * @param typed the word that was typed for "to"
+   * @param defined the procedure being defined
+   * @param parameterNames names of the inputs as this definition gives them
+   * @param commands the body, with its tail calls marked
+   */
+  public Definition(String typed, Procedure defined, List<String> parameterNames, Block commands){
+    word = typed;
+    procedure = defined;
+    parameters = List.copyOf(parameterNames);
+    body = commands;
+  }
+
+  /**
+   * @return the procedure being defined
+   */
+  public Procedure getProcedure(){
+    return procedure;
+  }
+
+  /**
+   * @return the body the procedure gets
+   */
+  public Block getBody(){
+    return body;
+  }
+
+  @Override
+  public String toString(){
+    StringBuilder text = new StringBuilder(word).append(SEPARATOR).append(procedure.getName()).append(SEPARATOR);
+    if(parameters.isEmpty()){
+      text.append(EMPTY_LIST);
+    } else {
+      text.append(LIST_START).append(String.join(SEPARATOR, parameters)).append(LIST_END);
+    }
+    text.append(SEPARATOR);
+    if(body.isEmpty()){
+      return text.append(EMPTY_LIST).toString();
+    }
+    return text.append(LIST_START).append(body).append(LIST_END).toString();
+  }
+}
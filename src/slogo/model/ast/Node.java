@@ -0,0 +1,19 @@
+package slogo.model.ast;
+
+import slogo.model.Evaluator;
+
+/**
+ * One piece of a parsed program. Nodes never change once the parser has built them, so the
+ * same tree can be run again, by any turtle, without going back to the source text.
+ */
+public abstract class Node {
+
+  /**
+   * Runs this node
+   * @param evaluator the evaluator that knows the current turtle and variables
+   * @return the value of the node
+   */
+  public double evaluate(Evaluator evaluator){
+    return evaluator.evaluate(this);
+  }
+}
@@ -0,0 +1,53 @@
+package slogo.model.ast;
+
+import java.util.List;
+
+/**
+ * A procedure the user made with "to". The parser knows the name and inputs as soon as it has
+ * read them, so calls to the procedure, including calls from its own body, can be parsed; the
+ * body is only put in place when the definition runs, and running the definition again with
+ * a new body changes what every existing call runs.
+ */
+public class Procedure {
+
+  private final String name;
+  private final List<String> parameters;
+  private Block body;
+
+  /**
+   * @param procedureName name the procedure is called by
+   * @param parameterNames names of its inputs, including the colons, in order, as first defined
+   */
+  public Procedure(String procedureName, List<String> parameterNames){
+    name = procedureName;
+    parameters = List.copyOf(parameterNames);
+  }
+
+  /**
+   * @return name the procedure is called by
+   */
+  public String getName(){
+    return name;
+  }
+
+  /**
+   * @return names of the inputs, including the colons, in order
+   */
+  public List<String> getParameters(){
+    return parameters;
+  }
+
+  /**
+   * @return the commands the procedure runs, or null if its definition has not run yet
+   */
+  public Block getBody(){
+    return body;
+  }
+
+  /**
+   * @param commands the commands the procedure runs
+   */
+  public void setBody(Block commands){
+    body = commands;
+  }
+}
@@ -0,0 +1,68 @@
+package slogo.model.ast;
+
+import java.util.List;
+
+/**
+ * A call to a procedure the user made, with the expressions for its inputs. A call that is the
+ * last thing its procedure's body does is a tail call: the evaluator runs it in place of the
+ * call that is finishing rather than on top of it, so recursion in tail position runs as a loop.
+ */
+public class ProcedureCall extends Node {
+
+  private static final String SEPARATOR = " ";
+
+  private final Procedure procedure;
+  private final String name;
+  private final List<Node> arguments;
+  private final boolean tail;
+
+  /**
+   * @param called the procedure being called
+   * @param word the word that was typed for the procedure
+   * @param argumentList expressions for its inputs, in the order they were typed
+   * @param tailCall true if the call is the last thing the enclosing procedure does
+   */
+  public ProcedureCall(Procedure called, String word, List<Node> argumentList, boolean tailCall){
+    procedure = called;
+    name = word;
+    arguments = List.copyOf(argumentList);
+    tail = tailCall;
+  }
+
+  /**
+   * @return the procedure being called
+   */
+  public Procedure getProcedure(){
+    return procedure;
+  }
+
+  /**
+   * @return expressions for the inputs, in the order they were typed
+   */
+  public List<Node> getArguments(){
+    return arguments;
+  }
+
+  /**
+   * @return true if the call is the last thing the enclosing procedure does
+   */
+  public boolean isTail(){
+    return tail;
+  }
+
+  /**
+   * @return the same call, marked as a tail call
+   */
+  public ProcedureCall asTailCall(){
+    return new ProcedureCall(procedure, name, arguments, true);
+  }
+
+  @Override
+  public String toString(){
+    StringBuilder text = new StringBuilder(name);
+    for(Node argument : arguments){
+      text.append(SEPARATOR).append(argument);
+    }
+    return text.toString();
+  }
+}
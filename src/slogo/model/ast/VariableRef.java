@@ -0,0 +1,59 @@
+package slogo.model.ast;
+
+/**
+ * A use of a variable, such as :x. The parser gives it the slot the variable is kept in, so
+ * its value is read from the slot each time it is run without looking the name up. Inside a
+ * procedure body the procedure's inputs are local: their slot is in the frame of the running
+ * call rather than in the VariableTable.
+ */
+public class VariableRef extends Node {
+
+  private final String name;
+  private final int slot;
+  private final boolean local;
+
+  /**
+   * @param variable name of the variable, including the colon
+   * @param variableSlot slot the VariableTable keeps the variable in
+   */
+  public VariableRef(String variable, int variableSlot){
+    this(variable, variableSlot, false);
+  }
+
+  /**
+   * @param variable name of the variable, including the colon
+   * @param variableSlot slot of the variable, in the VariableTable or in the procedure's frame
+   * @param isLocal true if the variable is an input of the procedure being defined
+   */
+  public VariableRef(String variable, int variableSlot, boolean isLocal){
+    name = variable;
+    slot = variableSlot;
+    local = isLocal;
+  }
+
+  /**
+   * @return name of the variable, including the colon
+   */
+  public String getName(){
+    return name;
+  }
+
+  /**
+   * @return slot of the variable, in the VariableTable or in the procedure's frame
+   */
+  public int getSlot(){
+    return slot;
+  }
+
+  /**
+   * @return true if the variable is an input of the procedure it is used in
+   */
+  public boolean isLocal(){
+    return local;
+  }
+
+  @Override
+  public String toString(){
+    return name;
+  }
+}
@@ -0,0 +1,32 @@
+package slogo.model.command;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how many parameters of each kind a command takes. The parser reads this once per
+ * command class when it starts up, so adding a command only means writing the class (with
+ * this annotation) and listing it in the language and Parameters files.
+ * A command that takes variables is made as soon as either its doubles or its lists are ready.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Arity {
+
+  /**
+   * @return number of doubles (numbers or expressions) the command takes
+   */
+  int doubles() default 0;
+
+  /**
+   * @return number of [ lists ] of commands the command takes
+   */
+  int lists() default 0;
+
+  /**
+   * @return number of :variables the command takes
+   */
+  int variables() default 0;
+}
@@ -0,0 +1,42 @@
+package slogo.model.command;
+
+import slogo.model.Turtle;
+import slogo.model.ast.Block;
+
+import java.util.List;
+
+@Arity(lists = 2)
+public class Ask extends TurtleSelection {
+
+  private Block ids, commands;
+
+  /**
+   * Ask constructor, for "ask [ ids ] [ commands ]", which has each turtle with one of those ids
+   * run the commands, and then goes back to the turtles picked before
+   * @param turtleList the list of turtles being brought in to use this command (if needed)
+   * @param doubleList the list of doubles to be used for this command (if needed)
+   * @param commandList the list of commands being used for this command (if needed)
+   * @param stringList the list of strings being used for this command (if needed)
+   */
+  public Ask(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList){
+    super();
+    ids = commandList.get(SECOND_INDEX);
+    commands = commandList.get(FIRST_INDEX);
+  }
+
+  /**
+   * @return the list of turtle ids
+   */
+  @Override
+  public Block getSelection() {
+    return ids;
+  }
+
+  /**
+   * @return the commands each turtle runs
+   */
+  @Override
+  public Block getCommands() {
+    return commands;
+  }
+}
@@ -0,0 +1,47 @@
+package slogo.model.command;
+
+import slogo.model.Turtle;
+import slogo.model.ast.Block;
+
+import java.util.List;
+
+@Arity(lists = 2)
+public class AskWith extends TurtleSelection {
+
+  private Block condition, commands;
+
+  /**
+   * AskWith constructor, for "askwith [ condition ] [ commands ]", which has each turtle for
+   * which the condition holds run the commands, and then goes back to the turtles picked before
+   * @param turtleList the list of turtles being brought in to use this command (if needed)
+   * @param doubleList the list of doubles to be used for this command (if needed)
+   * @param commandList the list of commands being used for this command (if needed)
+   * @param stringList the list of strings being used for this command (if needed)
+   */
+  public AskWith(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList){
+    super();
+    condition = commandList.get(SECOND_INDEX);
+    commands = commandList.get(FIRST_INDEX);
+  }
+
+  /**
+   * @return the condition, worked out by each turtle in turn
+   */
+  @Override
+  public Block getSelection() {
+    return condition;
+  }
+
+  /**
+   * @return the commands each turtle meeting the condition runs
+   */
+  @Override
+  public Block getCommands() {
+    return commands;
+  }
+
+  @Override
+  public boolean isCondition() {
+    return true;
+  }
+}
@@ -1,10 +1,13 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.TurtleStore;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
-public class Backward extends Command {
+@Arity(doubles = 1)
+public class Backward extends Command implements BatchCommand {
 
   private static final Double BACK = -1.0;
   private Double distance;
@@ -19,7 +22,7 @@ public class Backward extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList  the list of strings being used for this command (if needed)
    */
-  public Backward(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList) {
+  public Backward(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList) {
     super(doubleList.get(FIRST_INDEX));
     t = turtleList.get(FIRST_INDEX);
     distance = doubleList.get(FIRST_INDEX);
@@ -46,4 +49,13 @@ public class Backward extends Command {
     return distance;
   }
 
+  /**
+   * Moves every turtle given backwards
+   * @param store the store holding the turtles
+   * @param rows the rows of the turtles
+   */
+  @Override
+  public void executeForAll(TurtleStore store, int[] rows) {
+    store.moveAll(rows, distance * BACK);
+  }
 }
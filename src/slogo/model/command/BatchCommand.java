@@ -0,0 +1,18 @@
+package slogo.model.command;
+
+import slogo.model.TurtleStore;
+
+/**
+ * A command that can be done by many turtles in one go, straight on the arrays of a TurtleStore,
+ * instead of being made and executed once per turtle. Doing it this way must leave every turtle
+ * exactly as executing it for each turtle in turn would.
+ */
+public interface BatchCommand {
+
+  /**
+   * Executes the command for the turtles in the given rows, in order
+   * @param store the store holding the turtles
+   * @param rows the rows of the turtles
+   */
+  void executeForAll(TurtleStore store, int[] rows);
+}
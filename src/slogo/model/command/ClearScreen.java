@@ -1,14 +1,15 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
+@Arity
 public class ClearScreen extends Command {
 
   private static final int DEFAULT_STARTING_X = 0;
   private static final int DEFAULT_STARTING_Y = 0;
-  private static final String UPDATE = "clear";
   private Turtle t;
 
   /**
@@ -20,7 +21,7 @@ public class ClearScreen extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList  the list of strings being used for this command (if needed)
    */
-  public ClearScreen(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList) {
+  public ClearScreen(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList) {
     super();
     t = turtleList.get(FIRST_INDEX);
   }
@@ -44,16 +45,15 @@ public class ClearScreen extends Command {
    */
   @Override
   public Double execute() {
-    t.goHome();
-    return this.getResult();
+    return t.goHome();
   }
 
   /**
-   * Returns the string for method reflection
-   * @return the clear string
+   * Returns the effect for the controller to pass on to the view
+   * @return the clear effect
    */
   @Override
-  public String getViewInteractionString() {
-    return UPDATE;
+  public Effect getEffect() {
+    return Effect.CLEAR;
   }
 }
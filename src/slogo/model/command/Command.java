@@ -1,8 +1,5 @@
 package slogo.model.command;
 
-import java.util.ArrayList;
-import java.util.List;
-
 abstract public class Command {
 
   protected static final int FIRST_INDEX = 0;
@@ -10,7 +7,6 @@ abstract public class Command {
   protected static final int THIRD_INDEX = 2;
   protected static final int FOURTH_INDEX = 3;
   private static final double DEFAULT_COMMAND_RESULT = 0;
-  private static final String UPDATE = "update";
   private static final String MY_PACKAGE = "slogo.model.command.";
   private double result;
 
@@ -41,21 +37,12 @@ abstract public class Command {
   }
 
   /**
-   * Allows the string to be returned to allow for method reflection
-   * @return the string name
-   */
-  public String getViewInteractionString(){
-    return UPDATE;
-  }
-
-  /**
-   * Make a list with just this command in it
-   * @return the command list of just this command
+   * Returns what the view has to do once this command has executed; by default it redraws
+   * the turtle where it now is
+   * @return the effect for the controller to pass on to the view
    */
-  public List<Command> getCommandList(){
-    List<Command> ret = new ArrayList<>();
-    ret.add(this);
-    return ret;
+  public Effect getEffect(){
+    return Effect.MOVE;
   }
 
   /**
@@ -1,14 +1,51 @@
 package slogo.model.command;
 
-import java.util.List;
+import slogo.model.ast.Block;
 
 abstract public class CommandWithReturningList extends Command{
 
   protected static final Double DEFAULT = 0.0;
 
+  private Double result = DEFAULT;
+
+  /**
+   * Return the next list of commands this command wants run. Lists are handed out one at a
+   * time, so a loop never builds up all of its repetitions at once
+   * @param previousResult value of the list handed out before, or DEFAULT on the first call
+   * @return the next list of commands to run, or null once the command is finished
+   */
+  abstract public Block nextBlock(double previousResult);
+
+  /**
+   * Name of a variable to set before the list from nextBlock is run, such as the counter of a
+   * loop; the variable goes back to what it was once the command is finished
+   * @return the variable name, or null if there is none
+   */
+  public String getLoopVariable(){
+    return null;
+  }
+
+  /**
+   * @return the value to set the loop variable to
+   */
+  public double getLoopValue(){
+    return DEFAULT;
+  }
+
+  /**
+   * Get result returns the value of the last command to be executed
+   * @return the result
+   */
+  @Override
+  public Double getResult(){
+    return result;
+  }
+
   /**
-   * Return the list of commands held by a command
-   * @return commands
+   * Records the value of the last list of commands that was run
+   * @param value the value
    */
-  //abstract public List<Command> getCommandList();
+  protected void setResult(double value){
+    result = value;
+  }
 }
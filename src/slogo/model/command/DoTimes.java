@@ -1,45 +1,75 @@
 package slogo.model.command;
 
-import java.util.ArrayList;
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
+import slogo.model.ast.Node;
+import slogo.model.ast.VariableRef;
 
 import java.util.List;
 
+@Arity(lists = 2)
 public class DoTimes extends CommandWithReturningList{
 
-  private Double times;
-  private List<Command> commands, returningList;
+  private static final int LIMIT_START = 1;
+  private String variable;
+  private Block limit, commands;
+  private double times;
+  private long repetition;
+  private boolean started;
 
   /**
-   *
-   * @param //reps
-   * @param commandList
+   * DoTimes constructor, for "dotimes [ :variable limit ] [ commands ]", which runs the
+   * commands limit times with the variable counting from 1 up to limit
+   * @param turtleList the list of turtles being brought in to use this command (if needed)
+   * @param doubleList the list of doubles to be used for this command (if needed)
+   * @param commandList the list of commands being used for this command (if needed)
+   * @param stringList the list of strings being used for this command (if needed)
    */
-  public DoTimes(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList){
-    times = doubleList.get(FIRST_INDEX);
+  public DoTimes(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList){
+    super();
+    List<Node> header = commandList.get(SECOND_INDEX).getNodes();
+    if(!header.isEmpty() && header.get(FIRST_INDEX) instanceof VariableRef){
+      variable = ((VariableRef) header.get(FIRST_INDEX)).getName();
+    }
+    limit = new Block(header.subList(Math.min(LIMIT_START, header.size()), header.size()));
     commands = commandList.get(FIRST_INDEX);
   }
 
   /**
-   * get result returns the last value of the last command to be executed
-   * @return
+   * First hands out the limit to be worked out, then the commands once for every count up to it
+   * @return the next list to run, or null once the commands have been run limit times
    */
-  public Double getResult(){
-    return commands.get(commands.size()-1).getResult();
+  @Override
+  public Block nextBlock(double previousResult) {
+    if(!started){
+      started = true;
+      return limit;
+    }
+    if(repetition == 0){
+      times = previousResult;
+    } else {
+      setResult(previousResult);
+    }
+    if(repetition >= times){
+      return null;
+    }
+    repetition++;
+    return commands;
   }
 
   /**
-   * return the commands the number of times asked for
-   * @return commands * times in one list
+   * @return the variable counting the repetitions, once the limit is known
    */
   @Override
-  public List<Command> getCommandList() {
-    returningList = new ArrayList<>();
-    for(int k=0; k<times; k++) {
-      for (Command c : commands) {
-        returningList.addAll(c.getCommandList());
-      }
-    }
-    return returningList;
+  public String getLoopVariable() {
+    return repetition == 0 ? null : variable;
+  }
+
+  /**
+   * @return number of the current repetition, starting at one
+   */
+  @Override
+  public double getLoopValue() {
+    return repetition;
   }
 }
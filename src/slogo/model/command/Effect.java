@@ -0,0 +1,20 @@
+package slogo.model.command;
+
+/**
+ * What the view has to do after a command has executed. The controller switches on the effect
+ * and reads any value it needs straight from the command, such as getResult for a new pen
+ * size, so nothing is looked up by name.
+ */
+public enum Effect {
+  MOVE,
+  CLEAR,
+  PEN_STATUS,
+  PEN_COLOR,
+  PEN_SIZE,
+  SHAPE,
+  TURTLE_VIEW,
+  BACKGROUND,
+  PALETTE,
+  CONSTANT_VARIABLE,
+  COMMAND_VARIABLE
+}
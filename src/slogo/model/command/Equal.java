@@ -1,9 +1,11 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
+@Arity(doubles = 2)
 public class Equal extends Command {
 
   /**
@@ -13,8 +15,8 @@ public class Equal extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList the list of strings being used for this command (if needed)
    */
-  public Equal(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList){
-    super(doubleList.get(FIRST_INDEX) == doubleList.get(SECOND_INDEX));
+  public Equal(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList){
+    super(doubleList.get(FIRST_INDEX).doubleValue() == doubleList.get(SECOND_INDEX).doubleValue());
   }
 
 }
@@ -1,10 +1,13 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.TurtleStore;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
-public class Forward extends Command {
+@Arity(doubles = 1)
+public class Forward extends Command implements BatchCommand {
 
   private Turtle t;
   private Double distance;
@@ -17,7 +20,7 @@ public class Forward extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList the list of strings being used for this command (if needed)
    */
-  public Forward(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList) {
+  public Forward(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList) {
     super(doubleList.get(FIRST_INDEX));
     t = turtleList.get(FIRST_INDEX);
     distance = doubleList.get(FIRST_INDEX);
@@ -42,5 +45,13 @@ public class Forward extends Command {
     return distance;
   }
 
+  /**
+   * Moves every turtle given forward
+   * @param store the store holding the turtles
+   * @param rows the rows of the turtles
+   */
+  @Override
+  public void executeForAll(TurtleStore store, int[] rows) {
+    store.moveAll(rows, distance);
+  }
 }
-
@@ -1,9 +1,11 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
+@Arity
 public class Heading extends Command {
 
   private Turtle t;
@@ -16,7 +18,7 @@ public class Heading extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList  the list of strings being used for this command (if needed)
    */
-  public Heading(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList) {
+  public Heading(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList) {
     super();
     t = turtleList.get(FIRST_INDEX);
   }
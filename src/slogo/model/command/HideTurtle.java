@@ -1,13 +1,14 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
+@Arity
 public class HideTurtle extends Command {
 
   private static final double HIDDEN = 0;
-  private static final String UPDATE = "updateTurtleView";
   private Turtle t;
 
   /**
@@ -19,7 +20,7 @@ public class HideTurtle extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList  the list of strings being used for this command (if needed)
    */
-  public HideTurtle(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList) {
+  public HideTurtle(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList) {
     super(HIDDEN);
     t = turtleList.get(FIRST_INDEX);
   }
@@ -36,12 +37,12 @@ public class HideTurtle extends Command {
   }
 
   /**
-   * Returns the string for method reflection
-   * @return the update turtle view string
+   * Returns the effect for the controller to pass on to the view
+   * @return the turtle view effect
    */
   @Override
-  public String getViewInteractionString() {
-    return UPDATE;
+  public Effect getEffect() {
+    return Effect.TURTLE_VIEW;
   }
 }
 
@@ -1,9 +1,11 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
+@Arity
 public class Home extends Command {
 
   private static final int DEFAULT_STARTING_X = 0;
@@ -17,7 +19,7 @@ public class Home extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList the list of strings being used for this command (if needed)
    */
-  public Home(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList) {
+  public Home(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList) {
     super();
     t = turtleList.get(FIRST_INDEX);
   }
@@ -39,7 +41,6 @@ public class Home extends Command {
    */
   @Override
   public Double execute() {
-    t.goHome();
-    return t.distanceToPosition(DEFAULT_STARTING_X, DEFAULT_STARTING_Y);
+    return t.goHome();
   }
 }
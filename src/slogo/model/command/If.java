@@ -1,35 +1,29 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
-import java.util.ArrayList;
 import java.util.List;
 
-public class If extends Command {
+@Arity(doubles = 1, lists = 1)
+public class If extends CommandWithReturningList {
 
-  private boolean conditionResult;
-  private List<Command> commands, returningList;
-  private static final Double DEFAULT = 0.0;
+  private boolean conditionResult, done;
+  private Block commands;
 
-  public If(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList){
+  public If(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList){
     super();
     commands = commandList.get(FIRST_INDEX);
     conditionResult = (doubleList.get(FIRST_INDEX)!=0.0);
   }
 
   @Override
-  public Double getResult() {
-    returningList = new ArrayList<>();
-    if(conditionResult){
-      returningList = commands;
-      return returningList.get(returningList.size()-1).getResult();
+  public Block nextBlock(double previousResult) {
+    if(conditionResult && !done){
+      done = true;
+      return commands;
     }
-    return DEFAULT;
-  }
-
-  @Override
-  public List<Command> getCommandList() {
-    this.execute();
-    return returningList;
+    setResult(previousResult);
+    return null;
   }
 }
@@ -1,16 +1,17 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
-import java.util.ArrayList;
 import java.util.List;
 
+@Arity(doubles = 1, lists = 2)
 public class IfElse extends CommandWithReturningList {
 
-  private boolean conditionResult;
-  private List<Command> trueList, falseList, returningList;
+  private boolean conditionResult, done;
+  private Block trueList, falseList;
 
-  public IfElse(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList){
+  public IfElse(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList){
     super();
     falseList = commandList.get(FIRST_INDEX);
     trueList = commandList.get(SECOND_INDEX);
@@ -18,20 +19,12 @@ public class IfElse extends CommandWithReturningList {
   }
 
   @Override
-  public Double getResult() {
-    returningList = new ArrayList<>();
-    if(conditionResult){
-      returningList = trueList;
-    } else {
-      returningList = falseList;
+  public Block nextBlock(double previousResult) {
+    if(!done){
+      done = true;
+      return conditionResult ? trueList : falseList;
     }
-
-    return returningList.get(returningList.size()-1).getResult();
-  }
-
-  @Override
-  public List<Command> getCommandList() {
-    this.execute();
-    return returningList;
+    setResult(previousResult);
+    return null;
   }
 }
@@ -1,10 +1,13 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.TurtleStore;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
-public class Left extends Command {
+@Arity(doubles = 1)
+public class Left extends Command implements BatchCommand {
 
   private static final Double LEFT = -1.0;
   private Turtle t;
@@ -18,7 +21,7 @@ public class Left extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList  the list of strings being used for this command (if needed)
    */
-  public Left(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList) {
+  public Left(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList) {
     super(doubleList.get(FIRST_INDEX));
     t = turtleList.get(FIRST_INDEX);
     degrees = doubleList.get(FIRST_INDEX);
@@ -35,4 +38,13 @@ public class Left extends Command {
     return this.getResult();
   }
 
+  /**
+   * Turns every turtle given left
+   * @param store the store holding the turtles
+   * @param rows the rows of the turtles
+   */
+  @Override
+  public void executeForAll(TurtleStore store, int[] rows) {
+    store.turnAll(rows, degrees * LEFT);
+  }
 }
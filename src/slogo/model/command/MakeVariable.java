@@ -1,18 +1,16 @@
 package slogo.model.command;
 
-import java.util.ArrayList;
 import java.util.List;
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
+@Arity(doubles = 1, lists = 1, variables = 1)
 public class MakeVariable extends Command {
 
-  private static final String USER_CONSTANT = "addUserConstantToMap";
-  private static final String USER_COMMAND = "addUserCommandToMap";
-  private static final String SEPARATION = " ";
-  private boolean isConstant;
-  private double constant, result;
-  private List<Command> command, returningList;
-  private String variable, returningString;
+  private double result;
+  private Block command;
+  private String variable;
+  private Effect effect;
 
 
   /**
@@ -23,18 +21,15 @@ public class MakeVariable extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList the list of strings being used for this command (if needed)
    */
-  public MakeVariable(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList){
+  public MakeVariable(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList){
     super();
     variable = stringList.get(FIRST_INDEX);
     if (! commandList.isEmpty()){
-      returningList = super.getCommandList();
-      returningList.addAll(commandList.get(FIRST_INDEX));
-      result = returningList.get(returningList.size()-1).getResult();
-      returningString = USER_COMMAND + SEPARATION + variable;
+      command = commandList.get(FIRST_INDEX);
+      effect = Effect.COMMAND_VARIABLE;
     } else if (! doubleList.isEmpty()){
       result = doubleList.get(FIRST_INDEX);
-      returningList = super.getCommandList();
-      returningString = USER_CONSTANT + SEPARATION + variable;
+      effect = Effect.CONSTANT_VARIABLE;
     }
   }
 
@@ -48,21 +43,29 @@ public class MakeVariable extends Command {
   }
 
   /**
-   * Returns the command expression  if the variable is a command variable
-   * @return command list
+   * Returns the commands if the variable is a command variable; they are run each time the
+   * variable is used, not when it is made
+   * @return the commands
    */
-  @Override
-  public List<Command> getCommandList() {
-    return returningList;
+  public Block getCommands() {
+    return command;
+  }
+
+  /**
+   * Returns the name of the variable being made
+   * @return the variable name, including the colon
+   */
+  public String getVariable() {
+    return variable;
   }
 
   /**
-   * Returns the string for method reflection
-   * @return the string to update map
+   * Returns the effect for the controller to pass on to the view
+   * @return the constant variable or command variable effect
    */
   @Override
-  public String getViewInteractionString() {
-   return returningString;
+  public Effect getEffect() {
+   return effect;
   }
 
 }
@@ -1,9 +1,11 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
+@Arity(doubles = 1)
 public class Minus extends Command {
 
   /**
@@ -14,7 +16,7 @@ public class Minus extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList the list of strings being used for this command (if needed)
    */
-  public Minus(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList){
+  public Minus(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList){
     super(-1*doubleList.get(FIRST_INDEX));
   }
 }
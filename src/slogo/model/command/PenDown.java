@@ -1,13 +1,14 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
+@Arity
 public class PenDown extends Command {
 
   private static final double DRAWING = 1;
-  private static final String UPDATE = "updatePenStatus";
   private Turtle t;
 
   /**
@@ -19,7 +20,7 @@ public class PenDown extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList  the list of strings being used for this command (if needed)
    */
-  public PenDown(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList) {
+  public PenDown(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList) {
     super(DRAWING);
     t = turtleList.get(FIRST_INDEX);
   }
@@ -36,11 +37,11 @@ public class PenDown extends Command {
   }
 
   /**
-   * Returns the string for method reflection
-   * @return the update pen status string
+   * Returns the effect for the controller to pass on to the view
+   * @return the pen status effect
    */
   @Override
-  public String getViewInteractionString() {
-    return UPDATE;
+  public Effect getEffect() {
+    return Effect.PEN_STATUS;
   }
 }
\ No newline at end of file
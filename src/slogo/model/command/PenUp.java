@@ -1,13 +1,14 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
+@Arity
 public class PenUp extends Command {
 
   private static final double NOT_DRAWING = 0;
-  private static final String UPDATE = "updatePenStatus";
   private Turtle t;
 
   /**
@@ -19,7 +20,7 @@ public class PenUp extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList  the list of strings being used for this command (if needed)
    */
-  public PenUp(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList) {
+  public PenUp(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList) {
     super(NOT_DRAWING);
     t = turtleList.get(FIRST_INDEX);
   }
@@ -36,11 +37,11 @@ public class PenUp extends Command {
   }
 
   /**
-   * Returns the string for method reflection
-   * @return the update pen status string
+   * Returns the effect for the controller to pass on to the view
+   * @return the pen status effect
    */
   @Override
-  public String getViewInteractionString() {
-    return UPDATE;
+  public Effect getEffect() {
+    return Effect.PEN_STATUS;
   }
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
+@Arity(doubles = 2)
 public class Product extends Command {
 
   /**
@@ -15,7 +17,7 @@ public class Product extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList the list of strings being used for this command (if needed)
    */
-  public Product(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList){
+  public Product(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList){
     super(doubleList.get(FIRST_INDEX)*doubleList.get(SECOND_INDEX));
   }
 
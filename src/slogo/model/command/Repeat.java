@@ -1,52 +1,62 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
-import java.util.ArrayList;
 import java.util.List;
 
+@Arity(doubles = 1, lists = 1)
 public class Repeat extends CommandWithReturningList{
 
-  private Double times;
-  private List<Command> commands;
-  private List<Command> returningList;
+  private static final String REPETITION = ":repcount";
+  private double times;
+  private long repetition;
+  private Block commands;
 
   /**
    * Repeat constructor, take sin double and list of commands
-   * and multiplies list of commands by the given double
+   * and runs the list of commands the given number of times
    * @param turtleList the list of turtles being brought in to use this command (if needed)
    * @param doubleList the list of doubles to be used for this command (if needed)
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList the list of strings being used for this command (if needed)
    */
-  public Repeat(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList){
+  public Repeat(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList){
     super();
     times = doubleList.get(FIRST_INDEX);
     commands = commandList.get(FIRST_INDEX);
   }
 
+  /**
+   * return the commands again until they have been run the number of times asked for
+   * @return the commands, or null once they have been run times times
+   */
   @Override
+  public Block nextBlock(double previousResult) {
+    if(repetition > 0){
+      setResult(previousResult);
+    }
+    if(repetition >= times){
+      return null;
+    }
+    repetition++;
+    return commands;
+  }
+
   /**
-   * Get result returns the last value of the last command to be executed
-   * @return expanded list of commands to be done
+   * The number of the current repetition is kept in :repcount
+   * @return the name of the variable
    */
-  public Double getResult(){
-    List<Command> expandedList = getCommandList();
-    return expandedList.get(expandedList.size()-1).getResult();
+  @Override
+  public String getLoopVariable() {
+    return REPETITION;
   }
 
   /**
-   * return the commands the number of times asked for
-   * @return commands * times in one list
+   * @return number of the current repetition, starting at one
    */
   @Override
-  public List<Command> getCommandList() {
-    returningList = new ArrayList<>();
-    for(int k=0; k<times; k++) {
-      for (Command c : commands) {
-        returningList.addAll(c.getCommandList());
-      }
-    }
-    return returningList;
+  public double getLoopValue() {
+    return repetition;
   }
 }
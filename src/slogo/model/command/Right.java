@@ -1,10 +1,13 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.TurtleStore;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
-public class Right extends Command {
+@Arity(doubles = 1)
+public class Right extends Command implements BatchCommand {
 
   private Turtle t;
   private Double degrees;
@@ -17,7 +20,7 @@ public class Right extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList  the list of strings being used for this command (if needed)
    */
-  public Right(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList) {
+  public Right(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList) {
     super(doubleList.get(FIRST_INDEX));
     t = turtleList.get(FIRST_INDEX);
     degrees = doubleList.get(FIRST_INDEX);
@@ -33,4 +36,13 @@ public class Right extends Command {
     return t.turn(degrees);
   }
 
+  /**
+   * Turns every turtle given right
+   * @param store the store holding the turtles
+   * @param rows the rows of the turtles
+   */
+  @Override
+  public void executeForAll(TurtleStore store, int[] rows) {
+    store.turnAll(rows, degrees);
+  }
 }
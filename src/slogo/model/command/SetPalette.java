@@ -1,12 +1,15 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
+@Arity(doubles = 4)
 public class SetPalette extends Command {
 
-  private static final String UPDATE = "setColorPalette";
+  private static final int RED_SHIFT = 16;
+  private static final int GREEN_SHIFT = 8;
   private int red, green, blue;
   private double index;
 
@@ -18,7 +21,7 @@ public class SetPalette extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList  the list of strings being used for this command (if needed)
    */
-  public SetPalette(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList) {
+  public SetPalette(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList) {
     super();
     blue = (int) ((double) doubleList.get(FIRST_INDEX));
     green = (int) ((double) doubleList.get(SECOND_INDEX));
@@ -36,12 +39,20 @@ public class SetPalette extends Command {
   }
 
   /**
-   * Returns the method variable name and the hex value to be returned
-   * @return the method variable name and the hex value
+   * Returns the new color packed into one int, red in the high byte, then green, then blue
+   * @return the packed rgb value
+   */
+  public int getPackedColor() {
+    return (red << RED_SHIFT) | (green << GREEN_SHIFT) | blue;
+  }
+
+  /**
+   * Returns the effect for the controller to pass on to the view
+   * @return the palette effect
    */
   @Override
-  public String getViewInteractionString() {
-    return String.format(UPDATE + " " + "#%02x%02x%02x", red, green, blue);
+  public Effect getEffect() {
+    return Effect.PALETTE;
   }
 
 }
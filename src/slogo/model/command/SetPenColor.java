@@ -1,12 +1,13 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
+@Arity(doubles = 1)
 public class SetPenColor extends Command {
 
-  private static final String UPDATE = "updateCommandPenColor";
   private Double color;
   private Turtle t;
 
@@ -18,7 +19,7 @@ public class SetPenColor extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList  the list of strings being used for this command (if needed)
    */
-  public SetPenColor(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList) {
+  public SetPenColor(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList) {
     super();
     color = doubleList.get(FIRST_INDEX);
     t = turtleList.get(FIRST_INDEX);
@@ -46,11 +47,11 @@ public class SetPenColor extends Command {
   }
 
   /**
-   * Returns the string for method reflection
-   * @return the update command pen color string
+   * Returns the effect for the controller to pass on to the view
+   * @return the pen color effect
    */
   @Override
-  public String getViewInteractionString() {
-    return UPDATE;
+  public Effect getEffect() {
+    return Effect.PEN_COLOR;
   }
 }
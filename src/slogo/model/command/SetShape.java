@@ -1,12 +1,13 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
+@Arity(doubles = 1)
 public class SetShape extends Command {
 
-  private static final String UPDATE = "updateShape";
   private Double shape;
   private Turtle t;
 
@@ -19,7 +20,7 @@ public class SetShape extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList  the list of strings being used for this command (if needed)
    */
-  public SetShape(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList) {
+  public SetShape(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList) {
     super();
     shape = doubleList.get(FIRST_INDEX);
     t = turtleList.get(FIRST_INDEX);
@@ -47,11 +48,11 @@ public class SetShape extends Command {
   }
 
   /**
-   * Returns the string for method reflection
-   * @return the update shape string
+   * Returns the effect for the controller to pass on to the view
+   * @return the shape effect
    */
   @Override
-  public String getViewInteractionString() {
-    return UPDATE;
+  public Effect getEffect() {
+    return Effect.SHAPE;
   }
 }
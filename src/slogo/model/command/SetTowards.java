@@ -3,7 +3,9 @@ package slogo.model.command;
 import java.util.List;
 import java.util.Set;
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
+@Arity(doubles = 2)
 public class SetTowards extends Command {
 
   private Turtle t;
@@ -18,7 +20,7 @@ public class SetTowards extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList  the list of strings being used for this command (if needed)
    */
-  public SetTowards(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList) {
+  public SetTowards(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList) {
     super();
     t = turtleList.get(FIRST_INDEX);
     xPos = doubleList.get(SECOND_INDEX);
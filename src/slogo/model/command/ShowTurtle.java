@@ -1,13 +1,14 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
+@Arity
 public class ShowTurtle extends Command {
 
   private static final double SHOWING = 1;
-  private static final String UPDATE = "updateTurtleView";
   private Turtle t;
 
   /**
@@ -18,7 +19,7 @@ public class ShowTurtle extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList  the list of strings being used for this command (if needed)
    */
-  public ShowTurtle(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList) {
+  public ShowTurtle(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList) {
     super(SHOWING);
     t = turtleList.get(FIRST_INDEX);
   }
@@ -35,11 +36,11 @@ public class ShowTurtle extends Command {
   }
 
   /**
-   * Returns the string for method reflection
-   * @return the update turtle view string
+   * Returns the effect for the controller to pass on to the view
+   * @return the turtle view effect
    */
   @Override
-  public String getViewInteractionString() {
-    return UPDATE;
+  public Effect getEffect() {
+    return Effect.TURTLE_VIEW;
   }
 }
\ No newline at end of file
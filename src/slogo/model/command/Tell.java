@@ -0,0 +1,33 @@
+package slogo.model.command;
+
+import slogo.model.Turtle;
+import slogo.model.ast.Block;
+
+import java.util.List;
+
+@Arity(lists = 1)
+public class Tell extends TurtleSelection {
+
+  private Block ids;
+
+  /**
+   * Tell constructor, for "tell [ ids ]", which makes the turtles with those ids, creating any
+   * that don't exist yet, the ones every turtle command after it is done by
+   * @param turtleList the list of turtles being brought in to use this command (if needed)
+   * @param doubleList the list of doubles to be used for this command (if needed)
+   * @param commandList the list of commands being used for this command (if needed)
+   * @param stringList the list of strings being used for this command (if needed)
+   */
+  public Tell(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList){
+    super();
+    ids = commandList.get(FIRST_INDEX);
+  }
+
+  /**
+   * @return the list of turtle ids
+   */
+  @Override
+  public Block getSelection() {
+    return ids;
+  }
+}
@@ -0,0 +1,30 @@
+package slogo.model.command;
+
+import slogo.model.ast.Block;
+
+/**
+ * A command that picks which turtles the commands after it, or in its own list, are done by.
+ * The command only says what to pick them with; the evaluator works out the picked turtles and
+ * runs the commands, since doing that means running lists for many turtles in turn.
+ */
+abstract public class TurtleSelection extends Command {
+
+  /**
+   * @return the list giving the turtles: their ids, or for askwith the condition each must meet
+   */
+  abstract public Block getSelection();
+
+  /**
+   * @return the commands the picked turtles run, or null if they stay picked afterwards, as with tell
+   */
+  public Block getCommands(){
+    return null;
+  }
+
+  /**
+   * @return true if the selection is a condition to check for every turtle rather than a list of ids
+   */
+  public boolean isCondition(){
+    return false;
+  }
+}
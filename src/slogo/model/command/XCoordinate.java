@@ -1,9 +1,11 @@
 package slogo.model.command;
 
 import slogo.model.Turtle;
+import slogo.model.ast.Block;
 
 import java.util.List;
 
+@Arity
 public class XCoordinate extends Command {
 
   private Turtle t;
@@ -14,7 +16,7 @@ public class XCoordinate extends Command {
    * @param commandList the list of commands being used for this command (if needed)
    * @param stringList the list of strings being used for this command (if needed)
    */
-  public XCoordinate(List<Turtle> turtleList, List<Double> doubleList, List<List<Command>> commandList, List<String> stringList){
+  public XCoordinate(List<Turtle> turtleList, List<Double> doubleList, List<Block> commandList, List<String> stringList){
     super(turtleList.get(FIRST_INDEX).getX());
     t = turtleList.get(FIRST_INDEX);
   }
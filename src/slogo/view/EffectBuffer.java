@@ -0,0 +1,101 @@
+package slogo.view;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A fixed size ring of effect records, written by the one thread running commands and read by
+ * the JavaFX thread. A record is a kind, three numbers and, for the few effects that carry text,
+ * an object, all kept in arrays allocated once, so passing a move to the view allocates nothing.
+ * When the ring is full the writer waits for the reader to make room, which lets the commands
+ * run ahead of the view by at most the size of the ring instead of queueing without bound.
+ */
+public class EffectBuffer {
+  private static final int VALUES = 3;
+  private static final long WAIT_NANOS = 50000;
+
+  /**
+   * Receives the records read from the buffer, oldest first
+   */
+  public interface EffectHandler {
+    void handle(int kind, double first, double second, double third, Object payload);
+  }
+
+  private final int capacity;
+  private final int mask;
+  private final int[] kinds;
+  private final double[] values;
+  private final Object[] payloads;
+  private final AtomicLong written;
+  private final AtomicLong read;
+  private long next;
+  private long readSeen;
+
+  /**
+   * @param size the most records held at once, rounded up to a power of two
+   */
+  public EffectBuffer(int size){
+    capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+    mask = capacity - 1;
+    kinds = new int[capacity];
+    values = new double[capacity * VALUES];
+    payloads = new Object[capacity];
+    written = new AtomicLong();
+    read = new AtomicLong();
+  }
+
+  /**
+   * Adds a record, waiting first if the buffer is full. Only the writing thread may call this.
+   * @param kind what the effect is
+   * @param first first number of the effect
+   * @param second second number of the effect
+   * @param third third number of the effect
+   * @param payload text or action the effect carries, or null
+   */
+  public void put(int kind, double first, double second, double third, Object payload){
+    while(next - readSeen == capacity){
+      readSeen = read.get();
+      if(next - readSeen == capacity){
+        LockSupport.parkNanos(WAIT_NANOS);
+      }
+    }
+    int slot = (int) next & mask;
+    kinds[slot] = kind;
+    values[slot * VALUES] = first;
+    values[slot * VALUES + 1] = second;
+    values[slot * VALUES + 2] = third;
+    payloads[slot] = payload;
+    written.set(++next);
+  }
+
+  /**
+   * Hands records to the handler, oldest first, and frees their space. Only the reading thread
+   * may call this.
+   * @param handler receives each record
+   * @param most the most records to hand over
+   * @return how many records were handed over
+   */
+  public int drain(EffectHandler handler, int most){
+    long start = read.get();
+    long end = Math.min(written.get(), start + most);
+    long done = start;
+    try {
+      while(done < end){
+        int slot = (int) done++ & mask;
+        Object payload = payloads[slot];
+        payloads[slot] = null;
+        handler.handle(kinds[slot], values[slot * VALUES], values[slot * VALUES + 1], values[slot * VALUES + 2], payload);
+      }
+    } finally {
+      read.lazySet(done);
+    }
+    return (int) (end - start);
+  }
+
+  /**
+   * @return true if every record written has been read
+   */
+  public boolean isEmpty(){
+    return read.get() == written.get();
+  }
+}
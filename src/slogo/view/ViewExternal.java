@@ -1,77 +1,136 @@
 package slogo.view;
 
-public class ViewExternal implements ViewExternalAPI {
+import java.util.concurrent.atomic.AtomicBoolean;
+import javafx.application.Platform;
+
+/**
+ * Passes what the controller reports on to the Visualizer. Programs run on a background thread,
+ * so each update is written to an EffectBuffer as a record and carried out on the JavaFX
+ * application thread, in the order it was reported. The buffer is drained a batch at a time so a
+ * long program can't hold the JavaFX thread and freeze the window, and because the buffer has a
+ * fixed size a program that gets ahead of the view waits for it. Calls already on the JavaFX
+ * thread are carried out straight away.
+ *
+ * Moves become steps for the turtles to animate, so the buffer is only drained as fast as the
+ * turtles can show them: while the workspace's AnimationEngine has its fill of steps waiting,
+ * draining stops, the turtles play what they have and the program waits on the full buffer. A
+ * program being stopped is let through regardless, so it can get to its next step and stop.
+ *
+ * Draining is never nested: an update reported on the JavaFX thread by a record being carried
+ * out is carried out straight away, without draining the buffer again, and a batch cut short by
+ * an update that throws still schedules the next one.
+ */
+public class ViewExternal implements ViewExternalAPI, EffectBuffer.EffectHandler {
+  private static final int BUFFER_SIZE = 16384;
+  private static final int UPDATES_PER_PULSE = 2000;
+  private static final int MOVE = 0;
+  private static final int PEN_COLOR = 1;
+  private static final int BACKGROUND = 2;
+  private static final int PEN_SIZE = 3;
+  private static final int SHAPE = 4;
+  private static final int CLEAR = 5;
+  private static final int TURTLE_VIEW = 6;
+  private static final int PEN_STATUS = 7;
+  private static final int STATUS = 8;
+  private static final int COMMAND = 9;
+  private static final int VARIABLE = 10;
+  private static final int PALETTE = 12;
+  private static final int ACTION = 13;
+  private static final int TURTLE = 14;
+  private static final int CHOOSE = 15;
+  private static final double NONE = 0;
 
   private Visualizer myVisualizer;
+  private EffectBuffer pending;
+  private AtomicBoolean drainScheduled;
+  private Runnable drainTask;
+  private boolean held;
+  private boolean draining;
+  private boolean released;
 
   public ViewExternal(Visualizer view){
     myVisualizer = view;
+    pending = new EffectBuffer(BUFFER_SIZE);
+    drainScheduled = new AtomicBoolean();
+    drainTask = this::drainBatch;
   }
 
   @Override
   public void update(double newX, double newY, double orientation){
-    myVisualizer.getCurrentTurtle().update(newX, newY, orientation);
+    later(MOVE, newX, newY, orientation, null);
   }
 
   @Override
   public void updateCommandPenColor(double value){
-    myVisualizer.setPenColor(value);
+    later(PEN_COLOR, value, null);
   }
 
   @Override
   public void updateBackgroundColor(double value){
-    myVisualizer.setBackgroundColorFromPalette(value);
+    later(BACKGROUND, value, null);
   }
 
   @Override
   public void updatePenSize(double value){
-    myVisualizer.setPenSize(value);
+    later(PEN_SIZE, value, null);
   }
 
   @Override
   public void updateShape(double value){
-    myVisualizer.setShape(value);
+    later(SHAPE, value, null);
   }
 
   @Override
   public void clear() {
-    myVisualizer.clear();
+    later(CLEAR, NONE, null);
   }
 
   @Override
   public void updateTurtleView(double value) {
-    myVisualizer.getCurrentTurtle().updateTurtleView(value);
+    later(TURTLE_VIEW, value, null);
   }
 
   @Override
   public void updatePenStatus(double value) {
-    myVisualizer.getCurrentTurtle().updatePenStatus(value);
+    later(PEN_STATUS, value, null);
   }
 
   @Override
   public void updateStatus(){
-    myVisualizer.getCurrentTurtle().playAnimation();
-    myVisualizer.getCurrentTurtle().turtleStats();
+    later(STATUS, NONE, null);
   }
 
   @Override
   public void addCommand(String commandSyntax, String syntax) {
-    myVisualizer.addCommand(commandSyntax, syntax);
+    later(COMMAND, NONE, new String[]{commandSyntax, syntax});
   }
 
   @Override
   public void addVariable(String newVariable, Double newValue) {
-    myVisualizer.addVariable(newVariable, newValue);
+    later(VARIABLE, newValue, newVariable);
   }
 
+  /**
+   * Does nothing: the animators time a run by the steps each turtle has left, not by how many
+   * commands it had
+   */
   @Override
   public void setCommandSize(int size){
-    myVisualizer.getCurrentTurtle().setCommandSize(size);
   }
 
   @Override
   public void setColorPalette(double id, String hex) {
-    myVisualizer.updateColorMap(id, hex);
+    later(PALETTE, id, hex);
+  }
+
+  @Override
+  public void showTurtle(String name) {
+    later(TURTLE, NONE, name);
+  }
+
+  @Override
+  public void chooseTurtle(String name) {
+    later(CHOOSE, NONE, name);
   }
 
   @Override
@@ -79,4 +138,134 @@ public class ViewExternal implements ViewExternalAPI {
 
   @Override
   public int getArenaHeight() {return myVisualizer.getArenaHeight(); }
+
+  /**
+   * Runs an action on the JavaFX thread once every update reported before it has been carried out
+   * @param action the action
+   */
+  void afterUpdates(Runnable action){
+    later(ACTION, NONE, action);
+  }
+
+  /**
+   * Carries out one record from the buffer; only called on the JavaFX thread
+   */
+  @Override
+  public void handle(int kind, double first, double second, double third, Object payload){
+    switch (kind) {
+      case MOVE:
+        myVisualizer.moveTurtle(first, second, third);
+        break;
+      case PEN_COLOR:
+        myVisualizer.setPenColor(first);
+        break;
+      case BACKGROUND:
+        myVisualizer.setBackgroundColorFromPalette(first);
+        break;
+      case PEN_SIZE:
+        myVisualizer.setPenSize(first);
+        break;
+      case SHAPE:
+        myVisualizer.setShape(first);
+        break;
+      case CLEAR:
+        myVisualizer.clear();
+        break;
+      case TURTLE_VIEW:
+        myVisualizer.getCurrentTurtle().updateTurtleView(first);
+        break;
+      case PEN_STATUS:
+        myVisualizer.getCurrentTurtle().updatePenStatus(first);
+        break;
+      case STATUS:
+        released = false;
+        myVisualizer.playAnimations();
+        myVisualizer.getCurrentTurtle().turtleStats();
+        break;
+      case COMMAND:
+        String[] command = (String[]) payload;
+        myVisualizer.listCommand(command[0], command[1]);
+        break;
+      case VARIABLE:
+        myVisualizer.listVariable((String) payload, first);
+        break;
+      case PALETTE:
+        myVisualizer.updateColorMap(first, (String) payload);
+        break;
+      case ACTION:
+        ((Runnable) payload).run();
+        break;
+      case TURTLE:
+        myVisualizer.showTurtle((String) payload);
+        break;
+      case CHOOSE:
+        myVisualizer.showCurrentTurtle((String) payload);
+        break;
+    }
+  }
+
+  private void later(int kind, double value, Object payload){
+    later(kind, value, NONE, NONE, payload);
+  }
+
+  private void later(int kind, double first, double second, double third, Object payload){
+    if(Platform.isFxApplicationThread()){
+      if(!draining){
+        drain(Integer.MAX_VALUE);
+      }
+      handle(kind, first, second, third, payload);
+      return;
+    }
+    pending.put(kind, first, second, third, payload);
+    if(!drainScheduled.get() && drainScheduled.compareAndSet(false, true)){
+      Platform.runLater(drainTask);
+    }
+  }
+
+  /**
+   * Lets the updates through however many steps the turtles have waiting, until the run being
+   * stopped has ended; only called on the JavaFX thread
+   */
+  void release(){
+    released = true;
+    myVisualizer.getAnimations().whenRoom(null);
+    resume();
+  }
+
+  private void resume(){
+    if(held){
+      held = false;
+      drainBatch();
+    }
+  }
+
+  private void drainBatch(){
+    if(draining){
+      Platform.runLater(drainTask);
+      return;
+    }
+    if(!released && myVisualizer.getAnimations().isFull()){
+      held = true;
+      myVisualizer.playBacklog();
+      myVisualizer.getAnimations().whenRoom(this::resume);
+      return;
+    }
+    drainScheduled.set(false);
+    try {
+      drain(UPDATES_PER_PULSE);
+    } finally {
+      if(!pending.isEmpty() && drainScheduled.compareAndSet(false, true)){
+        Platform.runLater(drainTask);
+      }
+    }
+  }
+
+  private void drain(int most){
+    draining = true;
+    try {
+      pending.drain(this, most);
+    } finally {
+      draining = false;
+    }
+  }
 }
@@ -14,6 +14,8 @@ public interface ViewExternalAPI {
   void addVariable(String newVariable, Double newValue);
   void setCommandSize(int size);
   void setColorPalette(double id, String hex);
+  void showTurtle(String name);
+  void chooseTurtle(String name);
   int getArenaWidth();
   int getArenaHeight();
 }
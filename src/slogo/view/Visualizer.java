@@ -1,12 +1,18 @@
 package slogo.view;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
-import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -16,11 +22,11 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Priority;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Path;
 import javafx.stage.Stage;
 import slogo.controller.Controller;
 import slogo.exceptions.InvalidCommandException;
 import slogo.exceptions.InvalidTurtleException;
+import slogo.exceptions.StoppedException;
 import slogo.view.graphics.ColorPalette;
 import slogo.view.graphics.CommandLine;
 import slogo.view.graphics.PenProperties;
@@ -28,6 +34,8 @@ import slogo.view.graphics.ShapePalette;
 import slogo.view.graphics.ToolBar;
 import slogo.view.graphics.UserDefined;
 import slogo.view.graphics.UserInterface;
+import slogo.view.paths.SegmentBuffer;
+import slogo.view.turtles.AnimationEngine;
 import slogo.view.turtles.TurtleView;
 
 /**
@@ -47,8 +55,12 @@ public class Visualizer{
   private static final String DEFAULT_LANGUAGE = "English";
   private static final double UNSELECTED_OPACITY = .5;
   private static final int SELECTED_OPACITY = 1;
+  private static final long STEP_LIMIT = 100000000L;
+  private static final String WORKER_NAME = "slogo-commands";
+  private static final String ERROR_PACKAGE = RESOURCES + ".information.ErrorText";
 
   private Controller myController;
+  private ExecutorService worker;
   private ViewExternal viewExternal;
   private CommandLine commandLine;
   private PenProperties penProperties;
@@ -61,6 +73,8 @@ public class Visualizer{
   private Map<String, String> cmdMap;
   private SimpleObjectProperty<ObservableList<String>> myTurtlesProperty;
   private TurtleView currentTurtle;
+  private Set<TurtleView> movedTurtles;
+  private AnimationEngine animations;
 //  private Map<String, TurtleView> activeTurtles;
   private slogo.view.graphics.ToolBar myToolBar;
   private Stage myStage;
@@ -80,6 +94,8 @@ public class Visualizer{
     myResources = ResourceBundle.getBundle(FORMAT_PACKAGE + language);
     myTurtlesProperty = new SimpleObjectProperty<>(FXCollections.observableArrayList());
     turtleMap = new TreeMap<>();
+    movedTurtles = new LinkedHashSet<>();
+    animations = new AnimationEngine();
 //    activeTurtles = new TreeMap<>();
     varMap = new TreeMap<>();
     cmdMap = new TreeMap<>();
@@ -92,6 +108,12 @@ public class Visualizer{
     shapePalette = new ShapePalette();
     penProperties = new PenProperties(this, myResources);
     myController = new Controller(viewExternal, DEFAULT_LANGUAGE);
+    myController.setStepLimit(STEP_LIMIT);
+    worker = Executors.newSingleThreadExecutor(commands -> {
+      Thread thread = new Thread(commands, WORKER_NAME);
+      thread.setDaemon(true);
+      return thread;
+    });
   }
 
   /**
@@ -131,10 +153,19 @@ public class Visualizer{
    * @param syntax
    */
   public void addCommand(String command, String syntax){
+    listCommand(command, syntax);
+    worker.execute(() -> myController.addUserCommand(command, syntax));
+  }
+
+  /**
+   * Shows a command the model already knows about in the user defined list
+   * @param command
+   * @param syntax
+   */
+  void listCommand(String command, String syntax){
     Node commandAndSyntax = makeUserDefined(command, syntax, commandLine.setOnClick(command), new Label());
     cmdMap.put(command, syntax);
     userDefined.addCommand(commandAndSyntax);
-    myController.addUserCommand(command, syntax);
   }
 
   private Node makeUserDefined(String key, String value, EventHandler event, Label mutable){
@@ -156,11 +187,20 @@ public class Visualizer{
    * @param value
    */
   public void addVariable(String variable, Double value){
+    listVariable(variable, value);
+    worker.execute(() -> myController.addUserVariable(variable, value));
+  }
+
+  /**
+   * Shows a variable the model already knows about in the user defined list
+   * @param variable
+   * @param value
+   */
+  void listVariable(String variable, Double value){
     Label valueLabel = new Label();
     Node variableAndValue = makeUserDefined(variable, value.toString(), e->updateVariable(variable, valueLabel), valueLabel);
     varMap.put(variable, value);
     userDefined.addVariable(variableAndValue);
-    myController.addUserVariable(variable, value);
   }
   private static final int ONE = 1;
   private void updateVariable(String variableName, Label value){
@@ -176,7 +216,8 @@ public class Visualizer{
         number = Double.valueOf(result.get());
         varMap.put(variableName, number);
         value.setText(result.get());
-        myController.updateConstantVariable(variableName, number);
+        Double newValue = number;
+        worker.execute(() -> myController.updateConstantVariable(variableName, newValue));
       } catch (NumberFormatException e) {
         number = Double.parseDouble(value.getText());
       }
@@ -187,16 +228,16 @@ public class Visualizer{
    * turtles at different times.
    */
   public void addTurtle() {
-    try {
-      myController.addTurtle();
-    } catch (InvalidTurtleException e) {
-      e.displayError("Please add unique turtle:");
-    }
-    TurtleView tempTurtle = new TurtleView(userDefined.getTurtles(), userDefined.getTurtlePaths(), myController.getTurtleName(), this);
-    turtleMap.putIfAbsent(myController.getTurtleName(), tempTurtle);
-    userInterface.getTurtleBox().setValue(myController.getTurtleName());
-    myTurtlesProperty.getValue().add(myController.getTurtleName());
-    setTurtle(myController.getTurtleName());
+    worker.execute(() -> {
+      try {
+        myController.addTurtle();
+      } catch (InvalidTurtleException e) {
+        viewExternal.afterUpdates(() -> displayTurtleError(e, "Please add unique turtle:"));
+        return;
+      }
+      String name = myController.getTurtleName();
+      viewExternal.afterUpdates(() -> listTurtle(name, new TurtleView(userDefined.getTurtles(), name, this)));
+    });
   }
 
   /**
@@ -209,27 +250,55 @@ public class Visualizer{
    * @param heading   - starting orientation
    */
   public void addTurtle(String name, double startingX, double startingY, double heading) {
-    try {
-      myController.addTurtle(name, startingX, startingY, heading);
-    } catch (InvalidTurtleException e) {
-      e.displayError("Please fix XML to contain unique turtles:");
-      return;
-    }
-    TurtleView tempTurtle = new TurtleView(userDefined.getTurtles(), userDefined.getTurtlePaths(), myController.getTurtleName(), this);
-    tempTurtle.set(startingX, startingY, heading);
-    turtleMap.putIfAbsent(myController.getTurtleName(), tempTurtle);
-    userInterface.getTurtleBox().setValue(myController.getTurtleName());
-    myTurtlesProperty.getValue().add(myController.getTurtleName());
-    setTurtle(myController.getTurtleName());
+    worker.execute(() -> {
+      try {
+        myController.addTurtle(name, startingX, startingY, heading);
+      } catch (InvalidTurtleException e) {
+        viewExternal.afterUpdates(() -> displayTurtleError(e, "Please fix XML to contain unique turtles:"));
+        return;
+      }
+      String turtleName = myController.getTurtleName();
+      viewExternal.afterUpdates(() -> {
+        TurtleView tempTurtle = new TurtleView(userDefined.getTurtles(), turtleName, this);
+        tempTurtle.set(startingX, startingY, heading);
+        listTurtle(turtleName, tempTurtle);
+      });
+    });
+  }
+
+  /**
+   * Lists a turtle the controller just made and made current, and selects it in the view
+   */
+  private void listTurtle(String name, TurtleView turtle) {
+    turtleMap.putIfAbsent(name, turtle);
+    userInterface.getTurtleBox().setValue(name);
+    myTurtlesProperty.getValue().add(name);
+    selectTurtle(name);
+  }
+
+  private void displayTurtleError(InvalidTurtleException e, String content) {
+    Alert errorAlert = new Alert(Alert.AlertType.ERROR);
+    errorAlert.setHeaderText("Turtle already exists");
+    errorAlert.setContentText(e.getMessage() + "\n" + content);
+    errorAlert.showAndWait();
   }
 
   /**
    * Given a turtle's name or id, sets that turtle to be the current active turtle. In addition, it
-   * changes the opacity of all the turtles to indicate which are active and which aren't.
+   * changes the opacity of all the turtles to indicate which are active and which aren't. Like
+   * other user edits, the switch is queued behind any commands running, so it never changes the
+   * turtle out from under them, and the view follows once it has shown what they did.
    *
    * @param name
    */
   public void setTurtle(String name) {
+    worker.execute(() -> {
+      myController.chooseTurtle(name);
+      viewExternal.afterUpdates(() -> selectTurtle(name));
+    });
+  }
+
+  private void selectTurtle(String name) {
     userInterface.getList().itemsProperty().unbind();
     if (currentTurtle != null) {
       currentTurtle.setOpacity(UNSELECTED_OPACITY);
@@ -239,10 +308,64 @@ public class Visualizer{
       penProperties.getColorPicker().setValue(currentTurtle.getColor());
     }
     currentTurtle.setOpacity(SELECTED_OPACITY);
-    myController.chooseTurtle(name);
     userInterface.getList().itemsProperty().bind(currentTurtle.turtleStats());
   }
 
+  /**
+   * Shows a turtle the model made, such as one a program picked with tell, without making it
+   * current or telling the controller about it, since the controller made it
+   *
+   * @param name the turtle's name
+   */
+  void showTurtle(String name) {
+    TurtleView tempTurtle = new TurtleView(userDefined.getTurtles(), name, this);
+    tempTurtle.setOpacity(UNSELECTED_OPACITY);
+    turtleMap.putIfAbsent(name, tempTurtle);
+    myTurtlesProperty.getValue().add(name);
+  }
+
+  /**
+   * Makes the turtle a program switched to the one later updates apply to, without telling the
+   * controller, which is where the switch came from
+   *
+   * @param name the turtle's name
+   */
+  void showCurrentTurtle(String name) {
+    currentTurtle.setOpacity(UNSELECTED_OPACITY);
+    currentTurtle = turtleMap.get(name);
+    currentTurtle.setOpacity(SELECTED_OPACITY);
+  }
+
+  /**
+   * Moves the current turtle, remembering it so its animation is played at the end of the run
+   */
+  void moveTurtle(double newX, double newY, double orientation) {
+    currentTurtle.update(newX, newY, orientation);
+    movedTurtles.add(currentTurtle);
+  }
+
+  /**
+   * Plays the animations of every turtle that moved in the run that just finished
+   */
+  void playAnimations() {
+    movedTurtles.add(currentTurtle);
+    for (TurtleView moved : movedTurtles) {
+      moved.playAnimation();
+    }
+    movedTurtles.clear();
+  }
+
+  /**
+   * Starts playing what the turtles moved in a run that is still going have queued, so the steps
+   * waiting to be shown go down and the run can carry on
+   */
+  void playBacklog() {
+    movedTurtles.add(currentTurtle);
+    for (TurtleView moved : movedTurtles) {
+      moved.playQueued();
+    }
+  }
+
   /**
    * Retrieves the turtle view instance of the current turtle in order to manipulate its
    * information.
@@ -257,7 +380,7 @@ public class Visualizer{
    * Clears all the turtle paths on the screen.
    */
   public void clear() {
-    userDefined.getTurtlePaths().getChildren().clear();
+    userDefined.clearPaths();
   }
 
   /**
@@ -331,7 +454,7 @@ public class Visualizer{
    */
   public void setLanguage(String newLanguage) {
     language = newLanguage;
-    myController.addLanguage(language);
+    worker.execute(() -> myController.addLanguage(newLanguage));
     myResources = ResourceBundle.getBundle(FORMAT_PACKAGE + language);
     commandLine = new CommandLine(this, myResources);
     myToolBar = new ToolBar(myStage, this, myResources);
@@ -399,7 +522,65 @@ public class Visualizer{
    * @param command
    */
   public void sendCommands(String command) {
-    myController.sendCommands(command);
+    runInBackground(run -> myController.sendCommands(command, run), error -> commandLine.showRunError(command, error));
+  }
+
+  /**
+   * Runs commands the user typed in the background, one run at a time, so the window keeps
+   * responding while they run
+   *
+   * @param command the commands
+   * @param whenDone given the error the commands stopped with, or null, on the JavaFX thread once
+   *                 the view has caught up with everything they did
+   */
+  public void sendCommands(String command, Consumer<RuntimeException> whenDone) {
+    runInBackground(run -> myController.sendCommands(command, run), whenDone);
+  }
+
+  /**
+   * Runs a file of commands in the background without loading it into the command line first
+   * @param file the file of commands
+   * @param whenDone given the error the commands stopped with, or null; a file that can't be read
+   *                 gives an UncheckedIOException
+   */
+  public void sendCommands(File file, Consumer<RuntimeException> whenDone) {
+    runInBackground(run -> {
+      try {
+        myController.sendCommands(file.toPath(), run);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }, whenDone);
+  }
+
+  /**
+   * Stops the commands that are running, at their next step
+   */
+  public void stopCommands() {
+    myController.stop();
+    viewExternal.release();
+  }
+
+  /**
+   * Runs commands on the worker once the runs before them are done. They are numbered now, not
+   * when they start, so pressing stop while they wait stops them too.
+   */
+  private void runInBackground(LongConsumer commands, Consumer<RuntimeException> whenDone) {
+    long run = myController.submitRun();
+    worker.execute(() -> {
+      RuntimeException error = null;
+      try {
+        commands.accept(run);
+      } catch (RuntimeException e) {
+        error = e;
+      } catch (Error e) {
+        error = new StoppedException(e, ResourceBundle.getBundle(ERROR_PACKAGE).getString("Failed"));
+        throw e;
+      } finally {
+        RuntimeException stoppedWith = error;
+        viewExternal.afterUpdates(() -> whenDone.accept(stoppedWith));
+      }
+    });
   }
 
   /**
@@ -455,18 +636,43 @@ public class Visualizer{
    * @param newY - the new Y position for the turtle to move to
    * @param heading - the new heading for the turtle to move to
    */
-  public void orientTurtle(double newX, double newY, double heading){myController.orientTurtle(newX, newY, heading);}
+  public void orientTurtle(double newX, double newY, double heading){
+    worker.execute(() -> myController.orientTurtle(newX, newY, heading));
+  }
 
   /**
-   * @return - A list of path objects to be modified and inspected to be written into the XML
+   * @return - The timer that animates every turtle in this workspace
    */
-  public List<Path> getPaths(){
-    return userDefined.getPathList();
+  public AnimationEngine getAnimations(){
+    return animations;
   }
 
   /**
-   * @return - A group of paths that is rendered in the scene so the XML
-   * can draw paths when loading a new scene
+   * @return - The lines drawn so far, to be inspected and written into the XML, or loaded into
+   * from it before calling repaintSegments
+   */
+  public SegmentBuffer getSegments(){
+    return userDefined.getSegments();
+  }
+
+  /**
+   * Saves lines a turtle finished drawing and shows them in the turtle area
+   * @param from - the buffer holding the lines
+   * @param first - row of the first line in that buffer
+   * @param end - row after the last line
+   */
+  public void addSegments(SegmentBuffer from, int first, int end){userDefined.addSegments(from, first, end);}
+
+  /**
+   * Forgets the lines a turtle drew in one run and takes them off the turtle area, such as when
+   * the run is undone
+   * @param turtle - the turtle's number in the buffer of lines
+   * @param run - the run
+   */
+  public void removeSegments(int turtle, int run){userDefined.removeSegments(turtle, run);}
+
+  /**
+   * Shows the saved lines again in the turtle area, such as after they were loaded from XML
    */
-  public Group getTurtlePaths(){return userDefined.getTurtlePaths();}
+  public void repaintSegments(){userDefined.repaintSegments();}
 }
@@ -2,6 +2,7 @@ package slogo.view.graphics;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
@@ -27,6 +28,7 @@ import slogo.view.Visualizer;
  * what they typed.
  */
 public class CommandLine {
+  private static final String ERROR_PACKAGE = "resources.information.ErrorText";
   private static final int TEXTBOX_WIDTH = 200;
   private static final int TEXTBOX_HEIGHT = 100;
   private static final int BUTTON_WIDTH = 50;
@@ -34,6 +36,8 @@ public class CommandLine {
 
   private Visualizer myVisualizer;
   private TextArea textBox;
+  private Button run;
+  private Button stop;
   private List<Label> history;
   private int historyIndex;
   private VBox historyBox;
@@ -77,10 +81,15 @@ public class CommandLine {
     userControls.getChildren().add(textBox);
 
     VBox buttonBox = new VBox();
-    Button run = myStyler.createButton("RunCommand", e->submitCommand());
+    run = myStyler.createButton("RunCommand", e->submitCommand());
     run.setMinWidth(BUTTON_WIDTH);
     run.setMaxHeight(TEXTBOX_HEIGHT/3);
 
+    stop = myStyler.createButton("StopCommand", e->myVisualizer.stopCommands());
+    stop.setMinWidth(BUTTON_WIDTH);
+    stop.setMaxHeight(TEXTBOX_HEIGHT/3);
+    stop.setDisable(true);
+
     Button clear = myStyler.createButton("ClearCommand", e->{
       textBox.clear();
       historyIndex=-1;
@@ -95,7 +104,7 @@ public class CommandLine {
     undo.setMaxHeight(TEXTBOX_HEIGHT/3);
 
 
-    buttonBox.getChildren().addAll(run,clear,undo);
+    buttonBox.getChildren().addAll(run,stop,clear,undo);
     userControls.getChildren().add(buttonBox);
     commandLine.setVgrow(terminal, Priority.ALWAYS);
     commandLine.getChildren().add(terminal);
@@ -106,24 +115,59 @@ public class CommandLine {
 
   /**
    * Once the button to run the command is clicked, this method calls on the controller which then sends info to the model
-   * in order for the command to be executed.
+   * in order for the command to be executed. The commands run in the background, so the window keeps responding and the
+   * stop button can end them; the command line waits until they are done.
    */
   private void submitCommand() {
     if((textBox.getText() != null) && !textBox.getText().isEmpty()){
-      try {
-        myVisualizer.sendCommands(textBox.getText());
-      } catch (InvalidCommandException e){
-        Label recentCommand = new Label("Invalid " + e.getType() + ": " + e.getSyntax() + "\n" + textBox.getText());
-        finishSubmitCommand(recentCommand);
-        return;
-      } catch (InvalidConstantException | InvalidVariableException | InvalidPropertyException | IllegalException | InstantException |
-              InvocationException | NoClassException | NoMethodException e){
-        Label recentCommand = new Label(e.getMessage());
-        finishSubmitCommand(recentCommand);
-        return;
+      String syntax = textBox.getText();
+      setRunning(true);
+      myVisualizer.sendCommands(syntax, error -> finishRun(syntax, error));
+    }
+  }
+
+  private void finishRun(String syntax, RuntimeException error) {
+    setRunning(false);
+    Label recentCommand = errorLabel(syntax, error);
+    if(recentCommand != null){
+      finishSubmitCommand(recentCommand);
+      return;
+    }
+    addHistory(syntax);
+  }
+
+  /**
+   * Shows why commands run from elsewhere than the command line, such as the turtle buttons, stopped, if they did.
+   * @param syntax - the commands
+   * @param error - the error they stopped with, or null
+   */
+  public void showRunError(String syntax, RuntimeException error) {
+    Label recentCommand = errorLabel(syntax, error);
+    if(recentCommand != null){
+      showError(recentCommand);
+    }
+  }
+
+  private Label errorLabel(String syntax, RuntimeException error) {
+    try {
+      if(error != null){
+        throw error;
       }
-      addHistory(textBox.getText());
+    } catch (InvalidCommandException e){
+      return new Label("Invalid " + e.getType() + ": " + e.getSyntax() + "\n" + syntax);
+    } catch (InvalidConstantException | InvalidVariableException | InvalidPropertyException | IllegalException | InstantException |
+            InvocationException | NoClassException | NoMethodException | RecursionDepthException | StoppedException e){
+      return new Label(e.getMessage());
+    } catch (RuntimeException e){ // a bug rather than a SLogo error; shown, since this runs in a callback nothing catches
+      return new Label(ResourceBundle.getBundle(ERROR_PACKAGE).getString("Unexpected") + ": " + e + "\n" + syntax);
     }
+    return null;
+  }
+
+  private void setRunning(boolean running) {
+    run.setDisable(running);
+    stop.setDisable(!running);
+    textBox.setEditable(!running);
   }
 
   public void finishSubmitCommand(Label recentCommand){
@@ -181,6 +225,30 @@ public class CommandLine {
     textBox.setText(Files.readString(file.toPath()));
   }
 
+  /**
+   * Runs a file of commands straight from disk instead of loading it into the text area, so
+   * generated programs too large to edit can still be run. Like typed commands, they run in the background.
+   * @param file - file of commands
+   */
+  public void runCodeFromFile(File file) {
+    setRunning(true);
+    myVisualizer.sendCommands(file, error -> finishFileRun(file, error));
+  }
+
+  private void finishFileRun(File file, RuntimeException error) {
+    setRunning(false);
+    if(error instanceof UncheckedIOException){
+      showError(new Label("Invalid code file\n" + file.getName()));
+    } else {
+      showRunError(file.getName(), error);
+    }
+  }
+
+  private void showError(Label error){
+    error.setTextFill(Color.RED);
+    historyBox.getChildren().add(error);
+  }
+
   /**
    * Returns all the commands currently in the command history to then be used in XML file.
    * @return
@@ -62,9 +62,10 @@ public class ToolBar {
     });
     MenuItem loadWorkspace = myStyler.makeMenuItem("LoadWorkspace", e-> new XMLReader(chooseXMLFile(), myStage));
     MenuItem loadCode = myStyler.makeMenuItem("LoadCode", e-> tryLoadCodeFromFile());
+    MenuItem runCode = myStyler.makeMenuItem("RunCode", e-> tryRunCodeFromFile());
     MenuItem saveWorkspace = myStyler.makeMenuItem("SaveWorkspace", e-> pickAndSaveFile());
     menuBar.getMenus().add(menu);
-    menu.getItems().addAll(newWindow, saveWorkspace, loadWorkspace, loadCode, restart, exit);
+    menu.getItems().addAll(newWindow, saveWorkspace, loadWorkspace, loadCode, runCode, restart, exit);
     tools.getChildren().addAll(menuBar, animationControls());
     return tools;
   }
@@ -74,7 +75,7 @@ public class ToolBar {
     slider.setMin(0);
     slider.setMax(2000);
     slider.setValue(500);
-    slider.valueProperty().addListener((o, old, neww) -> myVisualizer.getCurrentTurtle().setSpeed(neww.intValue()));
+    slider.valueProperty().addListener((o, old, neww) -> myVisualizer.getAnimations().setDuration(neww.intValue()));
     return slider;
   }
 
@@ -98,6 +99,14 @@ public class ToolBar {
     }
   }
 
+  private void tryRunCodeFromFile() {
+    File codeFile = chooseTXTFile();
+    if(codeFile == null){
+      return;
+    }
+    myTerminal.runCodeFromFile(codeFile);
+  }
+
   private void closeWindow() {
     myStage.close();
   }
@@ -130,6 +139,7 @@ public class ToolBar {
     fileChooser.setTitle("Choose Code File");
     fileChooser.setInitialDirectory(new File(System.getProperty(XML_FILEPATH)));
     fileChooser.getExtensionFilters().add(new ExtensionFilter("txt files", "*.txt"));
+    fileChooser.getExtensionFilters().add(new ExtensionFilter("logo files", "*.logo"));
     File file = fileChooser.showOpenDialog(myStage);
     if (file != null) {
       return file;
@@ -1,7 +1,5 @@
 package slogo.view.graphics;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.ResourceBundle;
 import javafx.scene.Group;
 import javafx.scene.Node;
@@ -11,10 +9,11 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Path;
 import javafx.scene.shape.Rectangle;
 import slogo.view.Styler;
 import slogo.view.Visualizer;
+import slogo.view.paths.PathCanvas;
+import slogo.view.paths.SegmentBuffer;
 
 /**
  * This class creates many components of the visualizer. These components include all of the turtleview, the command history,
@@ -27,12 +26,12 @@ public class UserDefined {
 
     private Rectangle turtleArea;
     private Color backgroundColor;
-    private Group turtlePaths;
+    private PathCanvas turtlePaths;
     private Group turtles;
     private VBox commandHistory;
     private VBox varHistory;
     private Styler styler;
-    private List<Path> pathList;
+    private SegmentBuffer segments;
     private int arena_width;
     private int arena_height;
 
@@ -42,13 +41,13 @@ public class UserDefined {
      * @param resources - a resources bundle in order to create all the labels
      */
     public UserDefined(Visualizer visualizer, ResourceBundle resources){
-        turtlePaths = new Group();
         turtles = new Group();
         backgroundColor = Color.WHITE;
         styler = new Styler(resources);
-        pathList = new ArrayList<>();
+        segments = new SegmentBuffer();
         arena_width=visualizer.getArenaWidth();
         arena_height=visualizer.getArenaHeight();
+        turtlePaths = new PathCanvas(arena_width, arena_height);
     }
 
     /**
@@ -140,11 +139,43 @@ public class UserDefined {
     }
 
     /**
-     * Gets the group of turtle paths which are then passed into the turtleview.
-     * @return group of turtle paths
+     * Saves finished lines and paints them on the turtle area, runs of connected lines as one stroke.
+     * @param from - the buffer holding the lines, such as a turtle's queue of lines still to draw
+     * @param first - row of the first line in that buffer
+     * @param end - row after the last line
      */
-    public Group getTurtlePaths(){
-        return turtlePaths;
+    public void addSegments(SegmentBuffer from, int first, int end){
+        int start = segments.size();
+        for(int row = first; row < end; row++){
+            segments.add(from, row);
+        }
+        turtlePaths.draw(segments, start, segments.size());
+    }
+
+    /**
+     * Forgets the lines a turtle drew in one run and repaints the turtle area with the ones left.
+     * @param turtle - the turtle's number in the buffer of lines
+     * @param run - the run
+     */
+    public void removeSegments(int turtle, int run){
+        if(segments.removeRun(turtle, run)){
+            turtlePaths.redraw(segments);
+        }
+    }
+
+    /**
+     * Repaints the turtle area from the saved lines, such as after lines were loaded into them.
+     */
+    public void repaintSegments(){
+        turtlePaths.redraw(segments);
+    }
+
+    /**
+     * Forgets every line and wipes them off the turtle area.
+     */
+    public void clearPaths(){
+        segments.clear();
+        turtlePaths.clear();
     }
 
     /**
@@ -156,7 +187,7 @@ public class UserDefined {
     }
 
     /**
-     * @return - A list of Path objects for writing into the XML.
+     * @return - The lines drawn so far, for writing into the XML.
      */
-    public List<Path> getPathList(){return pathList;}
+    public SegmentBuffer getSegments(){return segments;}
 }
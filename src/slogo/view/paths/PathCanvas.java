@@ -0,0 +1,96 @@
+package slogo.view.paths;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * The layer the turtles' finished lines are painted on. Each line is drawn into the canvas's
+ * pixels once, when its animation ends, instead of staying in the scene as a node of its own, so
+ * a drawing of many thousands of lines costs the scene no more to lay out and render than an
+ * empty one. The lines themselves are kept in a SegmentBuffer; this layer only shows them.
+ *
+ * A turtle going round a loop draws many short lines end to end in the same style. Such a run of
+ * lines is stroked as one polyline, one call for the whole run, which also keeps its corners from
+ * being painted twice where partly transparent lines overlap.
+ */
+public class PathCanvas extends Canvas {
+  private static final float NO_OPACITY = 0;
+  private static final double CHANNEL_MAX = 255;
+
+  /**
+   * @param width width of the turtle area
+   * @param height height of the turtle area
+   */
+  public PathCanvas(double width, double height){
+    super(width, height);
+  }
+
+  /**
+   * Paints a line on top of those already drawn. Lines drawn with the pen up are invisible and
+   * are skipped.
+   * @param segments the buffer holding the line
+   * @param row the line's row in it
+   */
+  public void draw(SegmentBuffer segments, int row){
+    draw(segments, row, row + 1);
+  }
+
+  /**
+   * Paints lines on top of those already drawn, oldest first, each run of lines that carry on
+   * from one another as one polyline
+   * @param segments the buffer holding the lines
+   * @param from row of the first line
+   * @param to row after the last line
+   */
+  public void draw(SegmentBuffer segments, int from, int to){
+    int start = from;
+    while(start < to){
+      int end = start + 1;
+      while(end < to && segments.continuesLine(end)){
+        end++;
+      }
+      strokePolyline(segments, start, end);
+      start = end;
+    }
+  }
+
+  /**
+   * Wipes the layer and paints every line in the buffer again, oldest first, such as after some
+   * have been undone
+   * @param segments the lines to show
+   */
+  public void redraw(SegmentBuffer segments){
+    clear();
+    draw(segments, 0, segments.size());
+  }
+
+  /**
+   * Wipes every line off the layer
+   */
+  public void clear(){
+    getGraphicsContext2D().clearRect(0, 0, getWidth(), getHeight());
+  }
+
+  private void strokePolyline(SegmentBuffer segments, int from, int to){
+    float opacity = segments.getOpacity(from);
+    if(opacity == NO_OPACITY){
+      return;
+    }
+    GraphicsContext gc = getGraphicsContext2D();
+    gc.setGlobalAlpha(opacity);
+    gc.setStroke(toColor(segments.getColor(from)));
+    gc.setLineWidth(segments.getWidth(from));
+    gc.beginPath();
+    gc.moveTo(segments.getX0(from), segments.getY0(from));
+    for(int row = from; row < to; row++){
+      gc.lineTo(segments.getX1(row), segments.getY1(row));
+    }
+    gc.stroke();
+  }
+
+  private Color toColor(int color){
+    return Color.rgb(SegmentBuffer.channelOf(color, SegmentBuffer.RED), SegmentBuffer.channelOf(color, SegmentBuffer.GREEN),
+        SegmentBuffer.channelOf(color, SegmentBuffer.BLUE), SegmentBuffer.channelOf(color, SegmentBuffer.ALPHA) / CHANNEL_MAX);
+  }
+}
@@ -0,0 +1,256 @@
+package slogo.view.paths;
+
+import java.util.Arrays;
+
+/**
+ * The lines the turtles have drawn, kept in parallel arrays of numbers, one row per line, instead
+ * of one Path node each. A line is its two end points in view coordinates, its color packed into
+ * an int, its width and opacity, and which turtle drew it in which of its runs, so undoing a run
+ * can take back exactly that run's lines. The turtle area paints from here and saved workspaces
+ * are written from here, so a line costs about fifty bytes however it is used.
+ */
+public class SegmentBuffer {
+  /**
+   * Turtle number of lines no turtle drew, such as those loaded from a file
+   */
+  public static final int NO_TURTLE = -1;
+  /**
+   * Channels of a packed color, given as how far each is shifted
+   */
+  public static final int ALPHA = 24;
+  public static final int RED = 16;
+  public static final int GREEN = 8;
+  public static final int BLUE = 0;
+
+  private static final int DEFAULT_CAPACITY = 64;
+  private static final int ENDS = 4;
+  private static final int CHANNEL_MAX = 255;
+
+  private double[] ends;
+  private int[] colors;
+  private float[] widths;
+  private float[] opacities;
+  private int[] turtles;
+  private int[] runs;
+  private int size;
+  private int turtleCount;
+
+  /**
+   * Create a buffer with no lines
+   */
+  public SegmentBuffer(){
+    ends = new double[DEFAULT_CAPACITY * ENDS];
+    colors = new int[DEFAULT_CAPACITY];
+    widths = new float[DEFAULT_CAPACITY];
+    opacities = new float[DEFAULT_CAPACITY];
+    turtles = new int[DEFAULT_CAPACITY];
+    runs = new int[DEFAULT_CAPACITY];
+  }
+
+  /**
+   * Packs a color into an int, eight bits a channel
+   * @param red red, from 0 to 1
+   * @param green green, from 0 to 1
+   * @param blue blue, from 0 to 1
+   * @param alpha alpha, from 0 to 1
+   * @return the packed color, alpha in the highest byte
+   */
+  public static int packColor(double red, double green, double blue, double alpha){
+    return channel(alpha) << ALPHA | channel(red) << RED | channel(green) << GREEN | channel(blue) << BLUE;
+  }
+
+  /**
+   * @param color a packed color
+   * @param channel ALPHA, RED, GREEN or BLUE
+   * @return the channel, from 0 to 255
+   */
+  public static int channelOf(int color, int channel){
+    return color >>> channel & CHANNEL_MAX;
+  }
+
+  /**
+   * Gives out a number for a turtle to mark its lines with
+   * @return a number no other turtle drawing into this buffer has
+   */
+  public int newTurtle(){
+    return turtleCount++;
+  }
+
+  /**
+   * Adds a line after the others
+   * @param x0 x of the start
+   * @param y0 y of the start
+   * @param x1 x of the end
+   * @param y1 y of the end
+   * @param color packed color
+   * @param width stroke width in pixels
+   * @param opacity opacity, 0 for a line drawn with the pen up
+   * @param turtle number of the turtle that drew it, or NO_TURTLE
+   * @param run which of the turtle's runs drew it
+   * @return the row of the line
+   */
+  public int add(double x0, double y0, double x1, double y1, int color, float width, float opacity, int turtle, int run){
+    if(size == colors.length){
+      grow();
+    }
+    ends[size * ENDS] = x0;
+    ends[size * ENDS + 1] = y0;
+    ends[size * ENDS + 2] = x1;
+    ends[size * ENDS + 3] = y1;
+    colors[size] = color;
+    widths[size] = width;
+    opacities[size] = opacity;
+    turtles[size] = turtle;
+    runs[size] = run;
+    return size++;
+  }
+
+  /**
+   * Adds a copy of a line kept in another buffer after the others
+   * @param other the buffer holding the line
+   * @param row the line's row there
+   * @return the row of the copy
+   */
+  public int add(SegmentBuffer other, int row){
+    return add(other.getX0(row), other.getY0(row), other.getX1(row), other.getY1(row), other.colors[row],
+        other.widths[row], other.opacities[row], other.turtles[row], other.runs[row]);
+  }
+
+  /**
+   * Takes out every line a turtle drew in one run, keeping the rest in order
+   * @param turtle number of the turtle
+   * @param run the run
+   * @return true if any lines were taken out
+   */
+  public boolean removeRun(int turtle, int run){
+    int kept = 0;
+    for(int row = 0; row < size; row++){
+      if(turtles[row] != turtle || runs[row] != run){
+        if(kept != row){
+          System.arraycopy(ends, row * ENDS, ends, kept * ENDS, ENDS);
+          colors[kept] = colors[row];
+          widths[kept] = widths[row];
+          opacities[kept] = opacities[row];
+          turtles[kept] = turtles[row];
+          runs[kept] = runs[row];
+        }
+        kept++;
+      }
+    }
+    boolean removed = kept != size;
+    size = kept;
+    return removed;
+  }
+
+  /**
+   * Takes out the lines before the given one, moving the rest to the front
+   * @param row the first line to keep
+   */
+  public void removeBefore(int row){
+    int kept = size - row;
+    System.arraycopy(ends, row * ENDS, ends, 0, kept * ENDS);
+    System.arraycopy(colors, row, colors, 0, kept);
+    System.arraycopy(widths, row, widths, 0, kept);
+    System.arraycopy(opacities, row, opacities, 0, kept);
+    System.arraycopy(turtles, row, turtles, 0, kept);
+    System.arraycopy(runs, row, runs, 0, kept);
+    size = kept;
+  }
+
+  /**
+   * Takes out every line
+   */
+  public void clear(){
+    size = 0;
+  }
+
+  /**
+   * @return how many lines are in the buffer
+   */
+  public int size(){
+    return size;
+  }
+
+  /**
+   * @param row row of a line
+   * @return x of the line's start
+   */
+  public double getX0(int row){
+    return ends[row * ENDS];
+  }
+
+  /**
+   * @param row row of a line
+   * @return y of the line's start
+   */
+  public double getY0(int row){
+    return ends[row * ENDS + 1];
+  }
+
+  /**
+   * @param row row of a line
+   * @return x of the line's end
+   */
+  public double getX1(int row){
+    return ends[row * ENDS + 2];
+  }
+
+  /**
+   * @param row row of a line
+   * @return y of the line's end
+   */
+  public double getY1(int row){
+    return ends[row * ENDS + 3];
+  }
+
+  /**
+   * @param row row of a line
+   * @return the line's packed color
+   */
+  public int getColor(int row){
+    return colors[row];
+  }
+
+  /**
+   * @param row row of a line
+   * @return the line's stroke width in pixels
+   */
+  public float getWidth(int row){
+    return widths[row];
+  }
+
+  /**
+   * @param row row of a line
+   * @return the line's opacity, 0 if it was drawn with the pen up
+   */
+  public float getOpacity(int row){
+    return opacities[row];
+  }
+
+  /**
+   * @param row row of a line
+   * @return true if the line carries on from the one before it: drawn by the same turtle in the
+   * same color, width and opacity, starting where that one ended, so both can be drawn as one
+   * polyline
+   */
+  public boolean continuesLine(int row){
+    int before = row - 1;
+    return row > 0 && turtles[row] == turtles[before] && colors[row] == colors[before]
+        && widths[row] == widths[before] && opacities[row] == opacities[before]
+        && getX0(row) == getX1(before) && getY0(row) == getY1(before);
+  }
+
+  private static int channel(double value){
+    return (int) Math.round(value * CHANNEL_MAX);
+  }
+
+  private void grow(){
+    int capacity = size * 2;
+    ends = Arrays.copyOf(ends, capacity * ENDS);
+    colors = Arrays.copyOf(colors, capacity);
+    widths = Arrays.copyOf(widths, capacity);
+    opacities = Arrays.copyOf(opacities, capacity);
+    turtles = Arrays.copyOf(turtles, capacity);
+    runs = Arrays.copyOf(runs, capacity);
+  }
+}
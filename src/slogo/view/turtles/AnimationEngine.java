@@ -0,0 +1,130 @@
+package slogo.view.turtles;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+/**
+ * The one timer that animates every turtle in a workspace. Each pulse it lets every playing
+ * turtle's animator catch up to the current time, however many of its steps that takes, instead
+ * of every step of every turtle being a Transition of its own. The timer runs only while some
+ * turtle is playing.
+ *
+ * A run's animation takes the same time however many steps it has: each turtle spreads the
+ * steps it has left over the engine's duration, so a big program just finishes more steps a
+ * pulse rather than taking longer.
+ *
+ * The engine also counts the steps every turtle has queued but not yet shown. Once that passes a
+ * bound the view stops taking updates from the running program, which then waits, and the
+ * turtles start playing what they have; the view is told to take more once the turtles have
+ * worked the count down to half the bound. So the steps waiting to be animated never take more
+ * than a few megabytes, however long the program.
+ */
+public class AnimationEngine extends AnimationTimer {
+  private static final int DEFAULT_DURATION = 500;
+  private static final int MOST_WAITING = 1 << 16;
+
+  private List<TurtleAnimator> playing;
+  private boolean running;
+  private int duration;
+  private long waiting;
+  private Runnable whenRoom;
+
+  /**
+   * Create an engine with no turtles playing
+   */
+  public AnimationEngine(){
+    playing = new ArrayList<>();
+    duration = DEFAULT_DURATION;
+  }
+
+  /**
+   * Sets how long a turtle takes to animate the steps it has left when a run ends
+   * @param millis the time in milliseconds; 0 shows each run's end at once
+   */
+  public void setDuration(int millis){
+    duration = millis;
+  }
+
+  /**
+   * @return how long a turtle takes to animate the steps it has left when a run ends, in milliseconds
+   */
+  int getDuration(){
+    return duration;
+  }
+
+  /**
+   * @return true if the turtles have as many steps waiting to be shown as they may
+   */
+  public boolean isFull(){
+    return waiting >= MOST_WAITING;
+  }
+
+  /**
+   * Runs an action, once, on the JavaFX thread as soon as the turtles have worked the steps
+   * waiting down to half the bound, or straight away if they already have
+   * @param action the action, such as taking more updates from the running program
+   */
+  public void whenRoom(Runnable action){
+    whenRoom = action;
+    checkRoom();
+  }
+
+  /**
+   * Counts steps a turtle queued, or, given a negative number, showed or dropped
+   * @param steps how many more steps are waiting
+   */
+  void addWaiting(int steps){
+    waiting += steps;
+  }
+
+  /**
+   * Starts animating a turtle on the next pulse, unless it is animating already
+   * @param animator the turtle's animator
+   */
+  void play(TurtleAnimator animator){
+    if(!animator.isScheduled()){
+      animator.setScheduled(true);
+      playing.add(animator);
+    }
+    if(!running){
+      running = true;
+      start();
+    }
+  }
+
+  /**
+   * Moves every playing turtle on to where it should be now, dropping those that finished or
+   * were paused
+   * @param now the time of this pulse, in nanoseconds
+   */
+  @Override
+  public void handle(long now){
+    int kept = 0;
+    for(int k = 0; k < playing.size(); k++){
+      TurtleAnimator animator = playing.get(k);
+      if(animator.advance(now)){
+        playing.set(kept++, animator);
+      } else {
+        animator.setScheduled(false);
+      }
+    }
+    while(playing.size() > kept){
+      playing.remove(playing.size() - 1);
+    }
+    checkRoom();
+    if(playing.isEmpty()){
+      running = false;
+      stop();
+    }
+  }
+
+  private void checkRoom(){
+    if(whenRoom != null && waiting <= MOST_WAITING / 2){
+      Runnable action = whenRoom;
+      whenRoom = null;
+      Platform.runLater(action);
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package slogo.view.turtles;
+
+import java.util.Arrays;
+
+/**
+ * The steps a turtle has yet to animate, kept in arrays of numbers instead of one Transition
+ * each. A step is where the turtle starts and ends it, in view coordinates, and the line it
+ * leaves behind; a move keeps its heading and a turn keeps its position, so any point part way
+ * through a step is just a blend of its two ends.
+ */
+class StepBuffer {
+  static final int NO_LINE = -1;
+
+  private static final int DEFAULT_CAPACITY = 64;
+  private static final int FIELDS = 6;
+  private static final int TO = 3;
+
+  private double[] ends;
+  private int[] lines;
+  private int size;
+
+  /**
+   * Create a buffer with no steps
+   */
+  StepBuffer(){
+    ends = new double[DEFAULT_CAPACITY * FIELDS];
+    lines = new int[DEFAULT_CAPACITY];
+  }
+
+  /**
+   * Adds a step after the others
+   * @param from x, y and heading at the start
+   * @param to x, y and heading at the end
+   * @param line row of the line the step draws in the turtle's queued lines, or NO_LINE
+   */
+  void add(double[] from, double[] to, int line){
+    if(size == lines.length){
+      ends = Arrays.copyOf(ends, size * 2 * FIELDS);
+      lines = Arrays.copyOf(lines, size * 2);
+    }
+    System.arraycopy(from, 0, ends, size * FIELDS, TO);
+    System.arraycopy(to, 0, ends, size * FIELDS + TO, TO);
+    lines[size] = line;
+    size++;
+  }
+
+  /**
+   * Takes out every step
+   */
+  void clear(){
+    size = 0;
+  }
+
+  /**
+   * Takes out the steps from the given one on
+   * @param step the first step to take out
+   */
+  void truncate(int step){
+    size = Math.min(size, step);
+  }
+
+  /**
+   * Takes out the steps before the given one, moving the rest to the front, and renumbers the
+   * lines of those kept for when the lines before theirs are taken out of the turtle's queued lines
+   * @param step the first step to keep
+   * @param line the first row of the queued lines that will be kept
+   */
+  void removeBefore(int step, int line){
+    int kept = size - step;
+    System.arraycopy(ends, step * FIELDS, ends, 0, kept * FIELDS);
+    System.arraycopy(lines, step, lines, 0, kept);
+    for(int k = 0; k < kept; k++){
+      if(lines[k] != NO_LINE){
+        lines[k] -= line;
+      }
+    }
+    size = kept;
+  }
+
+  /**
+   * @return how many steps are in the buffer
+   */
+  int size(){
+    return size;
+  }
+
+  /**
+   * @param step a step
+   * @param fraction how far through the step, from 0 to 1
+   * @return x of the turtle that far through the step
+   */
+  double getX(int step, double fraction){
+    return blend(step, 0, fraction);
+  }
+
+  /**
+   * @param step a step
+   * @param fraction how far through the step, from 0 to 1
+   * @return y of the turtle that far through the step
+   */
+  double getY(int step, double fraction){
+    return blend(step, 1, fraction);
+  }
+
+  /**
+   * @param step a step
+   * @param fraction how far through the step, from 0 to 1
+   * @return heading of the turtle that far through the step
+   */
+  double getHeading(int step, double fraction){
+    return blend(step, 2, fraction);
+  }
+
+  /**
+   * @param step a step
+   * @return row of the line the step draws, or NO_LINE
+   */
+  int getLine(int step){
+    return lines[step];
+  }
+
+  private double blend(int step, int field, double fraction){
+    double from = ends[step * FIELDS + field];
+    return from + (ends[step * FIELDS + TO + field] - from) * fraction;
+  }
+}
@@ -1,52 +1,69 @@
 package slogo.view.turtles;
 
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Queue;
-import javafx.animation.PathTransition;
-import javafx.animation.RotateTransition;
-import javafx.animation.SequentialTransition;
-import javafx.animation.Transition;
-import javafx.scene.Group;
+import javafx.animation.Interpolator;
 import javafx.scene.Node;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
-import javafx.util.Duration;
-import slogo.view.paths.LinePathElement;
-import slogo.view.paths.MoveToElement;
+import javafx.scene.paint.Color;
+import slogo.view.paths.SegmentBuffer;
 
 /**
+ * Animates one turtle through the steps its commands queued. The steps are kept in a StepBuffer
+ * with a cursor at the step being shown; the workspace's AnimationEngine calls advance on every
+ * pulse, which moves the cursor past every step whose time is up and shows the turtle part way
+ * through the next, so no step allocates anything to animate it. The steps finished in one pulse
+ * are not shown one by one; their lines are saved and painted together.
  *
+ * A run gets the engine's duration to play in, counted from when its steps first start playing,
+ * so it takes that long whether it has ten steps or a million. The steps waiting share the time
+ * left equally, including when a long run is played a part at a time while it is still going;
+ * steps still arriving once the time is up are finished at once, their lines drawn together.
+ *
+ * Each run of commands is numbered when its first step arrives and closed by playAnimation when
+ * the run ends, so a run sent while the one before is still animating gets its own number and
+ * its own place in the buffer: reset replays and undo takes back only the latest run.
+ *
+ * The animator tells the engine how many of its steps are waiting to be shown, so a long program
+ * can be held back while they play, and drops the steps already shown once there are many of
+ * them. A run so long that its first steps were dropped can still be undone, but not reset.
  */
 public class TurtleAnimator {
-  private static final double PATH_OPACITY = .75;
-  private static final double PATH_NO_OPACITY = 0.0;
+  private static final float PATH_OPACITY = .75f;
+  private static final float PATH_NO_OPACITY = 0;
+  private static final float PEN_UP_WIDTH = 1;
+  private static final double NANOS_PER_MILLI = 1e6;
+  private static final long NOT_PLAYED = -1;
+  private static final double HALF = 2;
+  private static final int COMPACT_AT = 1 << 16;
+  private static final long NO_DEADLINE = Long.MIN_VALUE;
 
-  private Queue<Path> pathHistory;
-  private List<Path> backupPathHistory;
-  private Queue<Transition> transitionQueue;
-  private Queue<Transition> backupTransitionQueue;
+  private SegmentBuffer queuedLines;
+  private StepBuffer steps;
+  private AnimationEngine engine;
   private TurtleView myTurtle;
-  private SequentialTransition st;
   private Node myImage;
-  private Group myPaths;
-  private int animationDuration;
-  private int totalDuration;
-  private boolean stopped;
+  private int cursor;
+  private int stopAt;
+  private double elapsed;
+  private long lastPulse;
+  private boolean playing;
+  private boolean scheduled;
+  private double stepDuration;
+  private int lineTurtle;
+  private int run;
+  private int runStart;
+  private boolean runOpen;
+  private boolean runKept;
+  private int reported;
+  private long deadline;
 
-  public TurtleAnimator(TurtleView turtle, Node image, Group paths){
+  public TurtleAnimator(TurtleView turtle, Node image, AnimationEngine animations){
     myTurtle = turtle;
-    pathHistory = new LinkedList<>();
-    backupPathHistory = new LinkedList<>();
-    transitionQueue = new LinkedList<>();
-    backupTransitionQueue = new LinkedList<>();
-    st = new SequentialTransition();
-    totalDuration = 500;
-    animationDuration = totalDuration;
-    stopped = true;
+    engine = animations;
+    queuedLines = new SegmentBuffer();
+    steps = new StepBuffer();
+    lineTurtle = turtle.newLineTurtle();
+    stepDuration = engine.getDuration();
+    deadline = NO_DEADLINE;
     setShape(image);
-    myPaths = paths;
   }
   /**
    * Updates the turtle's position, is called in the controller and updates the position whenever a corresponding command
@@ -56,140 +73,237 @@ public class TurtleAnimator {
    * @param orientation - new orientation
    */
   public void update(double newX, double newY, double orientation){
-    if(transitionQueue.isEmpty()){
-      myTurtle.updateHistory();
+    if(!runOpen){
+      startRun();
     }
     double[] newCoords = myTurtle.convertCoordinatesToView(newX, newY, orientation);
     double[] oldCoords = myTurtle.convertCoordinatesToView(myTurtle.getData()[0], myTurtle.getData()[1], myTurtle.getData()[2]);
     myTurtle.updateCurrent(newX, newY, orientation);
 
     if(newCoords[0] != oldCoords[0] || newCoords[1] != oldCoords[1]) {
-      Path path = new Path();
-      if(myTurtle.penDown()){
-        path.setOpacity(PATH_OPACITY);
-        path.setStrokeWidth(myTurtle.getLineWidth());
-      } else {
-        path.setOpacity(PATH_NO_OPACITY);
-      }
-      path.setStroke(myTurtle.getColor());
-      path.getElements().add(new MoveToElement(oldCoords[0], oldCoords[1]));
-      path.getElements().add(new LinePathElement(newCoords[0], newCoords[1]));
-      PathTransition pt = new PathTransition(Duration.millis(animationDuration), path, myImage);
-      pt.setPath(path);
-      transitionQueue.add(pt);
-      pathHistory.add(path);
+      Color color = myTurtle.getColor();
+      boolean penDown = myTurtle.penDown();
+      int line = queuedLines.add(oldCoords[0], oldCoords[1], newCoords[0], newCoords[1],
+          SegmentBuffer.packColor(color.getRed(), color.getGreen(), color.getBlue(), color.getOpacity()),
+          penDown ? (float) myTurtle.getLineWidth() : PEN_UP_WIDTH,
+          penDown ? PATH_OPACITY : PATH_NO_OPACITY, lineTurtle, run);
+      steps.add(oldCoords, new double[]{newCoords[0], newCoords[1], oldCoords[2]}, line);
     }
 
     if(newCoords[2] != oldCoords[2]) {
-      RotateTransition rt = new RotateTransition(Duration.millis(animationDuration),
-          myImage);
-      rt.setFromAngle(oldCoords[2]);
-      rt.setToAngle(newCoords[2]);
-      transitionQueue.add(rt);
-      pathHistory.add(new Path());
+      steps.add(new double[]{newCoords[0], newCoords[1], oldCoords[2]}, newCoords, StepBuffer.NO_LINE);
+    }
+    reportWaiting();
+  }
+
+  private void startRun(){
+    if(cursor == steps.size()){
+      steps.clear();
+      queuedLines.clear();
+      cursor = 0;
+      elapsed = 0;
     }
+    myTurtle.updateHistory();
+    runStart = steps.size();
+    runOpen = true;
+    runKept = true;
+    deadline = NO_DEADLINE;
+    run++;
+    reportWaiting();
   }
 
   /**
    * Once the turtle's position is updated, the animation is played in order to see the turtle move.
+   * This ends the run the steps came from. The steps not yet shown share what is left of the run's time equally.
    */
   public void playAnimation(){
-    backupTransitionQueue = new LinkedList<>(transitionQueue);
-    backupPathHistory = new LinkedList<>(pathHistory);
-    animateRecurse();
+    runOpen = false;
+    playQueued();
   }
 
-  private void animateRecurse() {
-    if(animationDuration == 0) {
-      while(!transitionQueue.isEmpty()){
-        st.getChildren().add(transitionQueue.remove());
-        addPath();
-        st.play();
-      }
-    } if(!transitionQueue.isEmpty()) {
-      stopped = false;
-      st = new SequentialTransition(transitionQueue.remove());
-      st.setOnFinished(e -> {
-        animateRecurse();
-        addPath();
-      });
-      st.play();
+  /**
+   * Plays the steps queued so far, while the run they come from may still be adding more. The
+   * steps not yet shown share what is left of the run's time equally, or are finished at once if
+   * the time is up.
+   */
+  public void playQueued(){
+    int left = steps.size() - cursor;
+    if(left == 0){
+      return;
+    }
+    long now = System.nanoTime();
+    if(deadline == NO_DEADLINE){
+      deadline = now + (long) (engine.getDuration() * NANOS_PER_MILLI);
+    }
+    if(now >= deadline){
+      finishNow();
+      return;
+    }
+    stepDuration = (deadline - now) / NANOS_PER_MILLI / left;
+    play();
+  }
+
+  /**
+   * Shows every queued step as done without animating them
+   */
+  private void finishNow(){
+    skipTo(steps.size());
+    show(cursor - 1, 1);
+    stop();
+    if(cursor >= COMPACT_AT){
+      compact();
+    }
+    reportWaiting();
+  }
+
+  /**
+   * Moves the turtle on to where it should be at the given time, finishing every step whose time
+   * is up; called by the engine on every pulse
+   * @param now the time of the pulse, in nanoseconds
+   * @return true to be called again on the next pulse, false if the turtle has stopped
+   */
+  boolean advance(long now){
+    if(!playing){
+      return false;
+    }
+    if(lastPulse != NOT_PLAYED){
+      elapsed += (now - lastPulse) / NANOS_PER_MILLI;
+    }
+    lastPulse = now;
+    int first = cursor;
+    while(cursor < stopAt && elapsed >= stepDuration){
+      elapsed -= stepDuration;
+      cursor++;
+    }
+    addLines(first, cursor);
+    boolean done = cursor == stopAt;
+    if(done){
+      show(cursor - 1, 1);
+      stop();
     } else {
-      stopped = true;
-      st = new SequentialTransition();
-      double[] modelCoords = myTurtle.convertCoordinatesToModel(myImage.getTranslateX()+myImage.getBoundsInLocal().getWidth()/2,
-          myImage.getTranslateY()+myImage.getBoundsInLocal().getHeight()/2,
-          myImage.getRotate());
-      myTurtle.updateCurrent(modelCoords[0], modelCoords[1], modelCoords[2]);
+      show(cursor, Interpolator.EASE_BOTH.interpolate(0.0, 1.0, elapsed / stepDuration));
+    }
+    if(cursor >= COMPACT_AT){
+      compact();
+    }
+    reportWaiting();
+    return !done;
+  }
+
+  /**
+   * Drops the steps already shown, and their lines, which are on the turtle area by now
+   */
+  private void compact(){
+    int firstLine = queuedLines.size();
+    for(int step = cursor; step < steps.size() && firstLine == queuedLines.size(); step++){
+      if(steps.getLine(step) != StepBuffer.NO_LINE){
+        firstLine = steps.getLine(step);
+      }
+    }
+    steps.removeBefore(cursor, firstLine);
+    queuedLines.removeBefore(firstLine);
+    if(runStart < cursor){
+      runKept = false;
+    }
+    runStart = Math.max(0, runStart - cursor);
+    stopAt -= cursor;
+    cursor = 0;
+  }
+
+  private void reportWaiting(){
+    int waiting = steps.size() - cursor;
+    engine.addWaiting(waiting - reported);
+    reported = waiting;
+  }
+
+  private void addLines(int fromStep, int toStep) {
+    int from = StepBuffer.NO_LINE;
+    int to = StepBuffer.NO_LINE;
+    for(int step = fromStep; step < toStep; step++){
+      int line = steps.getLine(step);
+      if(line != StepBuffer.NO_LINE){
+        from = from == StepBuffer.NO_LINE ? line : from;
+        to = line + 1;
+      }
+    }
+    if(from != StepBuffer.NO_LINE){
+      myTurtle.addLines(queuedLines, from, to);
     }
   }
 
-  private void addPath() {
-    Path path = pathHistory.remove();
-    myPaths.getChildren().add(path);
-    myTurtle.addPath(path);
+  private void show(int step, double fraction){
+    myImage.setTranslateX(steps.getX(step, fraction) - myImage.getBoundsInLocal().getWidth()/HALF);
+    myImage.setTranslateY(steps.getY(step, fraction) - myImage.getBoundsInLocal().getHeight()/HALF);
+    myImage.setRotate(steps.getHeading(step, fraction));
+  }
+
+  private void stop(){
+    playing = false;
+    elapsed = 0;
+    if(cursor == steps.size()){
+      double[] modelCoords = myTurtle.convertCoordinatesToModel(myImage.getTranslateX()+myImage.getBoundsInLocal().getWidth()/HALF,
+          myImage.getTranslateY()+myImage.getBoundsInLocal().getHeight()/HALF,
+          myImage.getRotate());
+      myTurtle.updateCurrent(modelCoords[0], modelCoords[1], modelCoords[2]);
+    }
   }
 
   public void pause(){
-    st.pause();
+    playing = false;
   }
 
   public void play(){
-    if(stopped){
-      animateRecurse();
-    } else {
-      st.play();
-    }
+    start(steps.size());
   }
 
   public void step(){
-    if(!stopped || !transitionQueue.isEmpty()) {
-      if(stopped) {
-        st = new SequentialTransition(transitionQueue.remove());
-      }
-      st.setOnFinished(e-> {
-        addPath();
-        stopped = true;
-      });
-      st.play();
+    start(cursor + 1);
+  }
+
+  private void start(int last){
+    if(cursor == steps.size()){
+      return;
     }
+    stopAt = Math.min(last, steps.size());
+    playing = true;
+    lastPulse = NOT_PLAYED;
+    engine.play(this);
   }
 
   public void resetAnimation(){
-    stopped=true;
-    st = new SequentialTransition();
+    if(!runKept){
+      return;
+    }
+    playing = false;
+    skipTo(runStart);
     myTurtle.rewindAnimation();
-    myPaths.getChildren().removeAll(backupPathHistory);
-    transitionQueue = new LinkedList<>(backupTransitionQueue);
-    pathHistory = new LinkedList<>(backupPathHistory);
+    myTurtle.removeLines(lineTurtle, run);
+    reportWaiting();
   }
 
   public void undo(){
-    stopped=true;
-    st = new SequentialTransition();
+    playing = false;
+    skipTo(runStart);
+    steps.truncate(runStart);
     myTurtle.undoMove();
-    transitionQueue = new LinkedList<>();
-    myPaths.getChildren().removeAll(backupPathHistory);
-    pathHistory = new LinkedList<>();
+    myTurtle.removeLines(lineTurtle, run);
+    reportWaiting();
   }
 
   /**
-   * Creates a designated size for the commands.
-   * @param size
+   * Moves the cursor to a step, first drawing the lines of any earlier runs' steps it jumps over
    */
-  public void setCommandSize(int size){
-    if(size == 0){
-      return;
-    }
-    animationDuration = totalDuration / size;
-    if(animationDuration == 0){
-      animationDuration = 1;
+  private void skipTo(int step){
+    if(cursor < step){
+      addLines(cursor, step);
     }
-  }
-
-  public void setSpeed(int value){
-    totalDuration = value;
+    cursor = step;
+    elapsed = 0;
   }
 
   public void setShape(Node image){myImage = image;}
+
+  boolean isScheduled(){return scheduled;}
+
+  void setScheduled(boolean value){scheduled = value;}
 }
@@ -12,13 +12,13 @@ import javafx.scene.control.Alert.AlertType;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Path;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import slogo.view.Visualizer;
+import slogo.view.paths.SegmentBuffer;
 
 /**
  * This class creates an instance of a turtle and stores all the relevant turtle information. In this way, we are able to
@@ -31,7 +31,6 @@ public class TurtleView{
     private static final int PATH_STROKE_WIDTH = 3;
     private static final String ERROR_DIALOG = "Please Choose Another File";
 
-    private Group myPaths;
     private Group myTurtles;
     private boolean penStatus;
     private ImageView myImage;
@@ -56,16 +55,14 @@ public class TurtleView{
      * Creates an instance of all the important variables that need to be referenced from other methods in this class.
      * Creates the paired Animator class which handles the actual animation of the TurtleView
      * @param turtles - a group of all the turtles from the visualizer
-     * @param paths - a group of the paths of the turtles
      * @param name - the name of the turtle in which this turtleview instance is being created for
      * @param visualizer - the Visualizer object to which the TurtleView sends back updated position data when it is set on the view side.
      */
-    public TurtleView(Group turtles, Group paths, String name, Visualizer visualizer){
+    public TurtleView(Group turtles, String name, Visualizer visualizer){
         myVisualizer = visualizer;
         arena_width = visualizer.getArenaWidth();
         arena_height = visualizer.getArenaHeight();
         penStatus = true;
-        myPaths = paths;
         turtleName = name;
         myTurtles = turtles;
         myImage = createTurtle();
@@ -77,7 +74,7 @@ public class TurtleView{
         currentY = myImage.getTranslateY() + myImage.getBoundsInLocal().getHeight()/2;
         heading = 0;
         stopped = true;
-        turtleAnimator = new TurtleAnimator(this, myImage, myPaths);
+        turtleAnimator = new TurtleAnimator(this, myImage, visualizer.getAnimations());
     }
 
     private ImageView createTurtle(){
@@ -150,6 +147,8 @@ public class TurtleView{
 
     public void playAnimation(){turtleAnimator.playAnimation();}
 
+    public void playQueued(){turtleAnimator.playQueued();}
+
 
     /**
      * This method creates an object property which is then binded with the turtle's information and displayed on the screen.
@@ -267,12 +266,6 @@ public class TurtleView{
         myVisualizer.orientTurtle(newX, newY, newHeading);
     }
 
-    /**
-     * Adjusts the duration of each individual animation so the total duration for each "submitted command" is the same
-     * @param size
-     */
-    public void setCommandSize(int size){turtleAnimator.setCommandSize(size);}
-
     /**
      * Retrieves all the turtles data and uses it for the XML file.
      * @return
@@ -315,12 +308,6 @@ public class TurtleView{
      */
     public void undo(){ turtleAnimator.undo(); }
 
-    /**
-     * Sets the total duration of the animation
-     * @param value - A double representing the total duration in milliseconds
-     */
-    public void setSpeed(int value){turtleAnimator.setSpeed(value);}
-
     /**
      * Brings variables tracking historical position of the turtle (for reset/undo) up to
      * speed with the current coordinates
@@ -364,10 +351,25 @@ public class TurtleView{
     }
 
     /**
-     * Adds the path object to the visualizer's list of paths for writing into XML
-     * @param path - the path to be saved in a list of paths in the view
+     * @return a number to mark this turtle's lines with in the visualizer's saved lines
+     */
+    public int newLineTurtle(){return myVisualizer.getSegments().newTurtle();}
+
+    /**
+     * Adds finished lines to the visualizer's saved lines for writing into XML, which also
+     * paints them on the turtle area
+     * @param lines - the buffer holding the lines
+     * @param from - row of the first line in that buffer
+     * @param to - row after the last line
+     */
+    public void addLines(SegmentBuffer lines, int from, int to){myVisualizer.addSegments(lines, from, to);}
+
+    /**
+     * Takes the lines drawn in one run back out of the visualizer's saved lines and off the turtle area
+     * @param lineTurtle - the number this turtle marks its lines with
+     * @param run - the run
      */
-    public void addPath(Path path){myVisualizer.getPaths().add(path);}
+    public void removeLines(int lineTurtle, int run){myVisualizer.removeSegments(lineTurtle, run);}
 
     /**
      * Handles conversion of coordinates between model coordinate system (0,0 is center of page)